@@ -22,8 +22,6 @@
 
 package io.github.axolotlclient.api;
 
-import java.util.UUID;
-
 import io.github.axolotlclient.api.requests.FriendRequest;
 import io.github.axolotlclient.api.util.UUIDHelper;
 import io.github.axolotlclient.util.notifications.Notifications;
@@ -36,13 +34,7 @@ public AddFriendScreen(Screen parent) {
 		super(parent, new TranslatableText("api.screen.friends.add"),
 			new TranslatableText("api.screen.friends.add.name"), s -> {
 				if (API.getInstance().isSocketConnected()) {
-					String uuid;
-					try {
-						uuid = API.getInstance().sanitizeUUID(UUID.fromString(s).toString());
-					} catch (IllegalArgumentException e) {
-						uuid = UUIDHelper.getUuid(s);
-					}
-					FriendRequest.getInstance().addFriend(uuid);
+					UUIDHelper.ensureUuidAsync(s).thenAccept(uuid -> FriendRequest.getInstance().addFriend(uuid.orElse(s)));
 				} else {
 					Notifications.getInstance().addStatus("api.error.notLoggedIn", "api.error.notLoggedIn.desc");
 				}
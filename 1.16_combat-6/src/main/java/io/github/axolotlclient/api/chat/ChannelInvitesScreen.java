@@ -113,7 +113,7 @@ public InvitesListEntry(ChannelInvite invite) {
             @Override
             public void render(MatrixStack graphics, int index, int top, int left, int width, int height, int mouseX, int mouseY, boolean hovering, float partialTick) {
                 drawTextWithShadow(graphics, textRenderer, new TranslatableText("api.channels.invite.name", invite.channelName()), left + 2, top + 2, -1);
-                drawTextWithShadow(graphics, textRenderer, new TranslatableText("api.channels.invite.from", UUIDHelper.getUsername(invite.fromUuid())).setStyle(Style.EMPTY.withItalic(true)), left + 15, top + height - textRenderer.fontHeight - 1, 0x808080);
+                drawTextWithShadow(graphics, textRenderer, new TranslatableText("api.channels.invite.from", UUIDHelper.getCachedUsername(invite.fromUuid())).setStyle(Style.EMPTY.withItalic(true)), left + 15, top + height - textRenderer.fontHeight - 1, 0x808080);
 
             }
         }
@@ -30,6 +30,7 @@
 import io.github.axolotlclient.api.ContextMenuScreen;
 import io.github.axolotlclient.api.requests.ChannelRequest;
 import io.github.axolotlclient.api.types.Channel;
+import io.github.axolotlclient.api.types.ChannelIndex;
 import io.github.axolotlclient.api.types.Relation;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.gui.Element;
@@ -44,6 +45,7 @@ public class ChatListWidget extends ElementListWidget<ChatListWidget.ChatListEnt
 
 	protected final ContextMenuScreen screen;
 	private final Predicate<Channel> predicate;
+	private String activeChannel;
 
 	public ChatListWidget(ContextMenuScreen screen, int screenWidth, int screenHeight, int x, int y, int width, int height, Predicate<Channel> filter) {
 		super(MinecraftClient.getInstance(), width, height, y, y + height, 25);
@@ -52,13 +54,35 @@ public ChatListWidget(ContextMenuScreen screen, int screenWidth, int screenHeigh
 		this.predicate = filter;
 	}
 
-	public void addChannels(List<Channel> channels) {
-		channels.stream().filter(predicate).sorted().forEach(c -> children().add(0, new ChatListEntry(c)));
+	/**
+	 * Shows the given channels, which are expected in the order of the {@link ChannelIndex}.
+	 */
+	public void setChannels(List<Channel> channels) {
+		children().clear();
+		channels.stream().filter(predicate).forEach(c -> children().add(new ChatListEntry(c)));
 		setScrollAmount(0);
 	}
 
+	/**
+	 * Moves the entry of a channel to the position the index has it at, or removes it if it isn't indexed anymore.
+	 */
+	public void update(String channelId) {
+		List<ChatListEntry> entries = children();
+		entries.removeIf(e -> e.channel.getId().equals(channelId));
+		Channel channel = ChannelIndex.getInstance().get(channelId).filter(predicate).orElse(null);
+		if (channel == null) {
+			return;
+		}
+		int index = 0;
+		while (index < entries.size() && ChannelIndex.ORDER.compare(entries.get(index).channel, channel) < 0) {
+			index++;
+		}
+		entries.add(index, new ChatListEntry(channel));
+	}
+
 	public void setActiveChannel(Channel channel) {
-		children().stream().filter(e -> e.channel.equals(channel))
+		activeChannel = channel.getId();
+		children().stream().filter(e -> e.channel.getId().equals(activeChannel))
 			.findFirst().ifPresent(c -> c.widget.active = false);
 	}
 
@@ -85,6 +109,7 @@ public ChatListEntry(Channel channel) {
 			this.channel = channel;
 			widget = new ButtonWidget(0, 0, getRowWidth(), 20, Text.of(channel.getName()),
 				buttonWidget -> client.openScreen(new ChatScreen(screen.getParent(), channel)));
+			widget.active = !channel.getId().equals(activeChannel);
 		}
 
 		@Override
@@ -22,14 +22,19 @@
 
 package io.github.axolotlclient.mixin;
 
+import java.util.List;
+
+import io.github.axolotlclient.AxolotlClient;
 import io.github.axolotlclient.modules.hud.HudManager;
 import io.github.axolotlclient.modules.hud.gui.hud.vanilla.CrosshairHud;
+import io.github.axolotlclient.util.DebugInfo;
 import net.minecraft.client.gui.hud.DebugHud;
 import net.minecraft.client.util.math.MatrixStack;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
 @Mixin(DebugHud.class)
 public abstract class DebugHudMixin {
@@ -41,4 +46,11 @@ public abstract class DebugHudMixin {
 			hud.render(matrices, 0);
 		}
 	}
+
+	@Inject(method = "getRightText", at = @At("RETURN"))
+	public void axolotlclient$addDebugInfo(CallbackInfoReturnable<List<String>> cir) {
+		if (AxolotlClient.CONFIG.debugLogOutput.get()) {
+			cir.getReturnValue().addAll(DebugInfo.getLines());
+		}
+	}
 }
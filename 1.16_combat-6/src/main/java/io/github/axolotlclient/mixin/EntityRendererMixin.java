@@ -26,6 +26,7 @@
 import io.github.axolotlclient.AxolotlClient;
 import io.github.axolotlclient.api.requests.UserRequest;
 import io.github.axolotlclient.modules.hypixel.HypixelAbstractionLayer;
+import io.github.axolotlclient.modules.hypixel.RequestPriority;
 import io.github.axolotlclient.modules.hypixel.bedwars.BedwarsMod;
 import io.github.axolotlclient.modules.hypixel.levelhead.LevelHead;
 import io.github.axolotlclient.modules.hypixel.levelhead.LevelHeadMode;
@@ -131,7 +132,7 @@
 							light);
 					}
 				} else if (LevelHead.getInstance().enabled.get()) {
-					String text = "Level: " + HypixelAbstractionLayer.getPlayerLevel(String.valueOf(entity.getUuid()), LevelHead.getInstance().mode.get());
+					String text = "Level: " + HypixelAbstractionLayer.getPlayerLevel(String.valueOf(entity.getUuid()), LevelHead.getInstance().mode.get(), RequestPriority.HIGH);
 
 					if (LevelHead.getInstance().mode.get().equals(LevelHeadMode.BEDWARS)) {
 						text += "☆";
@@ -22,6 +22,8 @@
 
 package io.github.axolotlclient.modules.screenshotUtils;
 
+import java.util.concurrent.CompletableFuture;
+
 import net.minecraft.client.gui.screen.Screen;
 import net.minecraft.client.gui.screen.ScreenTexts;
 import net.minecraft.client.gui.widget.ButtonWidget;
@@ -37,6 +39,9 @@ public class DownloadImageScreen extends Screen {
 	private static final Identifier SPRITE = new Identifier("axolotlclient", "textures/gui/sprites/go.png");
 
 	private final Screen parent;
+	private CompletableFuture<ImageInstance> download;
+	private volatile float progress;
+	private boolean failed;
 
 	public DownloadImageScreen(Screen parent) {
 		super(new TranslatableText("viewScreenshot"));
@@ -48,6 +53,13 @@ public void render(MatrixStack graphics, int mouseX, int mouseY, float delta) {
 		renderBackground(graphics);
 		super.render(graphics, mouseX, mouseY, delta);
 		drawCenteredText(graphics, textRenderer, getTitle(), width / 2, 33 / 2 - textRenderer.fontHeight / 2, -1);
+		if (download != null) {
+			float progress = this.progress;
+			Text status = progress < 0 ? new TranslatableText("gallery.image.loading.title") : new TranslatableText("gallery.image.download.progress", (int) (progress * 100));
+			drawCenteredText(graphics, textRenderer, status, width / 2, height / 2 + 16, -1);
+		} else if (failed) {
+			drawCenteredText(graphics, textRenderer, new TranslatableText("gallery.image.download.failure"), width / 2, height / 2 + 16, 0xFFFF5555);
+		}
 	}
 
 	@Override
@@ -65,10 +77,10 @@ protected void init() {
 		addButton(urlBox);
 		addButton(new ButtonWidget(width / 2 + 100 + 4, height / 2 - 10, 20, 20, new TranslatableText("download"), b -> {
 			String url = urlBox.getText().trim();
-			if (url.isEmpty()) {
+			if (url.isEmpty() || download != null) {
 				return;
 			}
-			client.openScreen(ImageScreen.create(this, ImageShare.getInstance().downloadImage(url), true));
+			download(url);
 		}) {
 			@Override
 			public void renderButton(MatrixStack graphics, int mouseX, int mouseY, float delta) {
@@ -87,8 +99,33 @@ public void renderButton(MatrixStack graphics, int mouseX, int mouseY, float del
 		setInitialFocus(urlBox);
 	}
 
+	private void download(String url) {
+		progress = -1;
+		failed = false;
+		var future = ImageShare.getInstance().downloadImage(url, (read, total) -> progress = total > 0 ? (float) read / total : -1);
+		download = future;
+		future.whenComplete((image, throwable) -> client.execute(() -> {
+			if (download == future) {
+				download = null;
+				if (image != null) {
+					client.openScreen(ImageScreen.create(this, future, true));
+				} else {
+					failed = true;
+				}
+			}
+		}));
+	}
+
 	@Override
 	public void onClose() {
 		client.openScreen(parent);
 	}
+
+	@Override
+	public void removed() {
+		if (download != null) {
+			download.cancel(false);
+			download = null;
+		}
+	}
 }
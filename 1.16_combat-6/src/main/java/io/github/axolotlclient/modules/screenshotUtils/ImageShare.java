@@ -22,14 +22,11 @@
 
 package io.github.axolotlclient.modules.screenshotUtils;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.concurrent.CompletableFuture;
 
-import com.google.common.hash.HashFunction;
-import com.google.common.hash.Hashing;
 import io.github.axolotlclient.util.Util;
 import lombok.Getter;
 import net.minecraft.client.texture.NativeImage;
@@ -61,21 +58,23 @@ public void uploadImage(Path file) {
 	}
 
 	public CompletableFuture<ImageInstance> downloadImage(String url) {
-		return download(url).thenApply(data -> {
-			if (data != ImageData.EMPTY) {
-				try (var in = new ByteArrayInputStream(data.data())) {
-					ImageInstance.Remote remote = new ImageInstance.RemoteImpl(NativeImage.read(in), data.name(), data.uploader(), data.sharedAt(), ensureUrl(url).orElseThrow());
-					try {
-						Path local = GalleryScreen.SCREENSHOTS_DIR.resolve(remote.filename());
-						HashFunction hash = Hashing.goodFastHash(32);
-						if (Files.exists(local) && hash.hashBytes(data.data()).equals(hash.hashBytes(Files.readAllBytes(local)))) {
-							return remote.toShared(local);
-						}
-					} catch (IOException ignored) {
+		return downloadImage(url, (read, total) -> {
+		});
+	}
+
+	public CompletableFuture<ImageInstance> downloadImage(String url, ProgressListener listener) {
+		return download(url, listener, data -> {
+			try (var in = Files.newInputStream(data.file())) {
+				ImageInstance.Remote remote = new ImageInstance.RemoteImpl(NativeImage.read(in), data.name(), data.uploader(), data.sharedAt(), ensureUrl(url).orElseThrow());
+				try {
+					Path local = GalleryScreen.SCREENSHOTS_DIR.resolve(remote.filename());
+					if (Files.exists(local) && Files.mismatch(data.file(), local) == -1) {
+						return remote.toShared(local);
 					}
-					return remote;
 				} catch (IOException ignored) {
 				}
+				return remote;
+			} catch (IOException ignored) {
 			}
 			return null;
 		});
@@ -22,6 +22,8 @@
 
 package io.github.axolotlclient.api;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
@@ -102,9 +104,9 @@ protected void init() {
 				.map(e -> (ClickableWidget) e).filter(e -> e.getMessage().equals(Text.translatable("api.chats"))).forEach(e -> e.visible = false);
 		}
 
-		ChannelRequest.getChannelList().whenCompleteAsync((list, t) ->
-			addDrawableChild(this.list = new ListWidget(list, 10, 30, 50, height - 70))
-		);
+		ListWidget widget = new ListWidget(10, 30, 50, height - 70);
+		addDrawableChild(this.list = widget);
+		ChannelRequest.getChannelList(channel -> client.execute(() -> widget.addChannel(channel)));
 
 		addDrawableChild(ButtonWidget.builder(CommonTexts.BACK, buttonWidget -> remove()).positionAndSize(10 - sidebarWidth, height - 30, 50, 20).build());
 		addDrawableChild(contextMenu = new ContextMenuContainer());
@@ -245,6 +247,7 @@ public Screen getParent() {
 
 	private class ListWidget extends AbstractParentElement implements Drawable, Element, Selectable {
 		private final List<ClickableWidget> elements;
+		private final List<Channel> channels = new ArrayList<>();
 		private final int y;
 		private final int width;
 		private final int height;
@@ -254,18 +257,25 @@ private class ListWidget extends AbstractParentElement implements Drawable, Elem
 		private int scrollAmount;
 		private boolean visible;
 
-		public ListWidget(List<Channel> list, int x, int y, int width, int height) {
+		public ListWidget(int x, int y, int width, int height) {
 			this.x = x;
 			this.y = y;
 			this.width = width;
 			this.height = height;
-			AtomicInteger buttonY = new AtomicInteger(y);
-			elements = list.stream().sorted((u1, u2) -> new AlphabeticalComparator().compare(u1.getName(), u2.getName()))
-				.map(channel -> ButtonWidget.builder(Text.of(channel.getName()), buttonWidget -> {
-						addChat(channel);
-						buttonWidget.active = false;
-					})
-					.positionAndSize(x, buttonY.getAndAdd(entryHeight), width, entryHeight - 5).build()).collect(Collectors.toList());
+			elements = new ArrayList<>();
+		}
+
+		public void addChannel(Channel channel) {
+			int index = Collections.binarySearch(channels, channel, (c1, c2) -> new AlphabeticalComparator().compare(c1.getName(), c2.getName()));
+			if (index < 0) {
+				index = -index - 1;
+			}
+			channels.add(index, channel);
+			elements.add(index, ButtonWidget.builder(Text.of(channel.getName()), buttonWidget -> {
+					addChat(channel);
+					buttonWidget.active = false;
+				})
+				.positionAndSize(x, y + index * entryHeight, width, entryHeight - 5).build());
 		}
 
 		@Override
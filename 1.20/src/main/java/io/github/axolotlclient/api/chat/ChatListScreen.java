@@ -22,10 +22,13 @@
 
 package io.github.axolotlclient.api.chat;
 
+import java.util.List;
+
 import io.github.axolotlclient.api.ContextMenuContainer;
 import io.github.axolotlclient.api.ContextMenuScreen;
 import io.github.axolotlclient.api.requests.ChannelRequest;
 import io.github.axolotlclient.api.types.Channel;
+import io.github.axolotlclient.api.types.ChannelIndex;
 import net.minecraft.client.gui.GuiGraphics;
 import net.minecraft.client.gui.screen.Screen;
 import net.minecraft.client.gui.widget.ButtonWidget;
@@ -64,10 +67,20 @@ protected void init() {
 		addDrawableChild(ButtonWidget.builder(Text.translatable("api.chat.groups.create"), buttonWidget ->
 				client.setScreen(new CreateChannelScreen(this)))
 			.positionAndSize(this.width / 2 - 155, this.height - 40, 150, 20).build());
-		ChannelRequest.getChannelList().whenCompleteAsync((list, t) -> {
-			groups.addChannels(list);
-			dms.addChannels(list);
-		});
+		ChannelIndex.getInstance().setListener(id -> client.execute(() -> {
+			groups.update(id);
+			dms.update(id);
+		}));
+		List<Channel> channels = ChannelIndex.getInstance().getChannels();
+		groups.setChannels(channels);
+		dms.setChannels(channels);
+		// the loaded channels reach the lists through the listener
+		ChannelRequest.getChannelList();
+	}
+
+	@Override
+	public void removed() {
+		ChannelIndex.getInstance().setListener(ChannelIndex.NO_LISTENER);
 	}
 
 	@Override
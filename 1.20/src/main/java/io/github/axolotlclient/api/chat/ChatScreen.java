@@ -22,6 +22,8 @@
 
 package io.github.axolotlclient.api.chat;
 
+import java.util.List;
+
 import com.mojang.blaze3d.platform.InputUtil;
 import io.github.axolotlclient.api.API;
 import io.github.axolotlclient.api.ContextMenuContainer;
@@ -29,6 +31,7 @@
 import io.github.axolotlclient.api.handlers.ChatHandler;
 import io.github.axolotlclient.api.requests.ChannelRequest;
 import io.github.axolotlclient.api.types.Channel;
+import io.github.axolotlclient.api.types.ChannelIndex;
 import net.minecraft.client.gui.GuiGraphics;
 import net.minecraft.client.gui.screen.Screen;
 import net.minecraft.client.gui.widget.ButtonWidget;
@@ -64,7 +67,13 @@ protected void init() {
 		addDrawable(contextMenu);
 
 		var chatList = addDrawableChild(new ChatListWidget(this, width, height, 0, 30, 55, height - 90));
-		ChannelRequest.getChannelList().thenAccept(chatList::addChannels).thenRun(() -> chatList.setActiveChannel(channel));
+		ChannelIndex.getInstance().setListener(id -> client.execute(() -> chatList.update(id)));
+		List<Channel> channels = ChannelIndex.getInstance().getChannels();
+		chatList.setChannels(channels);
+		chatList.setActiveChannel(channel);
+		if (channels.isEmpty()) {
+			ChannelRequest.getChannelList();
+		}
 
 		addDrawableChild(widget = new ChatWidget(channel, 65, 30, width - 155, height - 90, this));
 
@@ -113,6 +122,7 @@ public void removed() {
 		if (widget != null) {
 			widget.remove();
 		}
+		ChannelIndex.getInstance().setListener(ChannelIndex.NO_LISTENER);
 	}
 
 	@Override
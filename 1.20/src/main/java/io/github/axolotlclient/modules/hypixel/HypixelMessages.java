@@ -24,10 +24,8 @@
 
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import com.google.gson.JsonObject;
@@ -49,11 +47,10 @@ public class HypixelMessages implements SimpleSynchronousResourceReloadListener
 
 	@Getter
 	private final Map<String, Map<String, Pattern>> languageMessageMap = new HashMap<>();
-	private final Map<String, Map<String, Pattern>> messageLanguageMap = new HashMap<>();
+	private volatile HypixelMessageIndex index = HypixelMessageIndex.EMPTY;
 
 	public void load() {
 		languageMessageMap.clear();
-		messageLanguageMap.clear();
 
 		AxolotlClient.LOGGER.debug("Loading Hypixel Messages");
 		ResourceManager manager = MinecraftClient.getInstance().getResourceManager();
@@ -75,10 +72,9 @@ public void load() {
 				lines.entrySet().forEach(entry -> {
 					Pattern pattern = Pattern.compile(entry.getValue().getAsString());
 					map.putIfAbsent(entry.getKey(), pattern);
-					messageLanguageMap.computeIfAbsent(entry.getKey(), s -> new HashMap<>())
-						.put(lang, pattern);
 				});
 			});
+		index = HypixelMessageIndex.of(languageMessageMap);
 	}
 
 	public void process(BooleanOption option, String messageKey, ReceiveChatMessageEvent event) {
@@ -88,19 +84,15 @@ public void process(BooleanOption option, String messageKey, ReceiveChatMessageE
 	}
 
 	public boolean matchesAnyLanguage(String key, String message) {
-		return messageLanguageMap.getOrDefault(key, Collections.emptyMap()).values().stream()
-			.map(pattern -> pattern.matcher(message))
-			.anyMatch(Matcher::matches);
+		return index.matchesKey(key, message);
 	}
 
 	public boolean matchesAnyMessage(String lang, String message) {
-		return languageMessageMap.getOrDefault(lang, Collections.emptyMap())
-			.values().stream().map(pattern -> pattern.matcher(message)).anyMatch(Matcher::matches);
+		return index.matchesLanguage(lang, message);
 	}
 
 	public boolean matchesAny(String message) {
-		return languageMessageMap.values().stream().map(Map::values).anyMatch(patterns -> patterns.stream()
-			.map(pattern -> pattern.matcher(message)).anyMatch(Matcher::matches));
+		return index.matchesAny(message);
 	}
 
 	@Override
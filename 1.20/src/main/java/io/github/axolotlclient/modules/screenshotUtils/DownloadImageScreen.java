@@ -22,6 +22,7 @@
 
 package io.github.axolotlclient.modules.screenshotUtils;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
 
 import net.minecraft.client.font.TextRenderer;
@@ -38,6 +39,9 @@ public class DownloadImageScreen extends Screen {
 	private static final Identifier SPRITE = new Identifier("axolotlclient", "textures/gui/sprites/go.png");
 
 	private final Screen parent;
+	private CompletableFuture<ImageInstance> download;
+	private volatile float progress;
+	private boolean failed;
 
 	public DownloadImageScreen(Screen parent) {
 		super(Text.translatable("viewScreenshot"));
@@ -49,6 +53,13 @@ public void render(GuiGraphics graphics, int mouseX, int mouseY, float delta) {
 		renderBackground(graphics);
 		super.render(graphics, mouseX, mouseY, delta);
 		graphics.drawCenteredShadowedText(textRenderer, getTitle(), width / 2, 33 / 2 - textRenderer.fontHeight / 2, -1);
+		if (download != null) {
+			float progress = this.progress;
+			Text status = progress < 0 ? Text.translatable("gallery.image.loading.title") : Text.translatable("gallery.image.download.progress", (int) (progress * 100));
+			graphics.drawCenteredShadowedText(textRenderer, status, width / 2, height / 2 + 16, -1);
+		} else if (failed) {
+			graphics.drawCenteredShadowedText(textRenderer, Text.translatable("gallery.image.download.failure"), width / 2, height / 2 + 16, 0xFFFF5555);
+		}
 	}
 
 	@Override
@@ -66,10 +77,10 @@ protected void init() {
 		addDrawableChild(urlBox);
 		addDrawableChild(new ButtonWidget(width / 2 + 100 + 4, height / 2 - 10, 20, 20, Text.translatable("download"), b -> {
 			String url = urlBox.getText().trim();
-			if (url.isEmpty()) {
+			if (url.isEmpty() || download != null) {
 				return;
 			}
-			client.setScreen(ImageScreen.create(this, ImageShare.getInstance().downloadImage(url), true));
+			download(url);
 		}, Supplier::get) {
 			@Override
 			protected void drawWidget(GuiGraphics graphics, int mouseX, int mouseY, float delta) {
@@ -88,8 +99,33 @@ public void drawScrollableText(GuiGraphics graphics, TextRenderer renderer, int
 		setInitialFocus(urlBox);
 	}
 
+	private void download(String url) {
+		progress = -1;
+		failed = false;
+		var future = ImageShare.getInstance().downloadImage(url, (read, total) -> progress = total > 0 ? (float) read / total : -1);
+		download = future;
+		future.whenComplete((image, throwable) -> client.execute(() -> {
+			if (download == future) {
+				download = null;
+				if (image != null) {
+					client.setScreen(ImageScreen.create(this, future, true));
+				} else {
+					failed = true;
+				}
+			}
+		}));
+	}
+
 	@Override
 	public void closeScreen() {
 		client.setScreen(parent);
 	}
+
+	@Override
+	public void removed() {
+		if (download != null) {
+			download.cancel(false);
+			download = null;
+		}
+	}
 }
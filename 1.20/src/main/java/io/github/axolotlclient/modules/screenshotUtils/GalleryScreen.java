@@ -28,14 +28,19 @@
 import java.util.*;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
+import com.mojang.blaze3d.texture.NativeImage;
 import com.mojang.blaze3d.vertex.VertexConsumer;
 import io.github.axolotlclient.AxolotlClientConfig.api.util.Colors;
 import io.github.axolotlclient.api.API;
 import io.github.axolotlclient.api.requests.FriendRequest;
 import io.github.axolotlclient.api.requests.UserRequest;
 import io.github.axolotlclient.modules.hud.util.DrawUtil;
+import io.github.axolotlclient.util.ThreadExecuter;
 import io.github.axolotlclient.util.Watcher;
 import net.fabricmc.loader.api.FabricLoader;
 import net.minecraft.client.MinecraftClient;
@@ -47,10 +52,12 @@
 import net.minecraft.client.gui.widget.ButtonWidget;
 import net.minecraft.client.gui.widget.ElementListWidget;
 import net.minecraft.client.render.RenderLayer;
+import net.minecraft.client.texture.NativeImageBackedTexture;
 import net.minecraft.client.util.ScreenshotRecorder;
 import net.minecraft.text.CommonTexts;
 import net.minecraft.text.MutableText;
 import net.minecraft.text.Text;
+import net.minecraft.util.Identifier;
 import net.minecraft.util.Util;
 import net.minecraft.util.math.MathHelper;
 import org.jetbrains.annotations.NotNull;
@@ -59,47 +66,56 @@
 public class GalleryScreen extends Screen {
 
 	public static final Path SCREENSHOTS_DIR = FabricLoader.getInstance().getGameDir().resolve(ScreenshotRecorder.SCREENSHOTS_DIRECTORY);
+	private static final ThumbnailCache THUMBNAILS = new ThumbnailCache(SCREENSHOTS_DIR.resolveSibling(".screenshot_thumbnails"));
+	private static final GalleryIndex INDEX = new GalleryIndex(SCREENSHOTS_DIR, SCREENSHOTS_DIR.resolveSibling(".screenshot_thumbnails").resolve("index.json"), THUMBNAILS);
+	private static final SharedThumbnailCache SHARED_THUMBNAILS = new SharedThumbnailCache(SCREENSHOTS_DIR.resolveSibling(".shared_thumbnails"));
+
+	/**
+	 * @param loader loads the preview shown in the grid
+	 * @param viewer loads the full size image opened in the {@link ImageScreen}
+	 */
+	private record Tab<T>(Text title, Supplier<CompletableFuture<List<T>>> list, Loader<T, Preview> loader, Loader<T, ImageInstance> viewer) {
+
+		private static final Tab<GalleryIndex.Entry> LOCAL = new Tab<>(Text.translatable("gallery.title.local"), () -> load(INDEX::entries),
+			e -> THUMBNAILS.get(SCREENSHOTS_DIR.resolve(e.filename()), e.hash()).thenCompose(thumbnail -> load(() -> Preview.read(e.filename(), thumbnail))),
+			e -> load(() -> new ImageInstance.LocalImpl(SCREENSHOTS_DIR.resolve(e.filename()))));
+
+		private static final Tab<String> SHARED = new Tab<>(Text.translatable("gallery.title.shared"), () ->
+			FriendRequest.getInstance().getFriendUuids().thenCompose(uuids -> {
+				List<CompletableFuture<Optional<List<String>>>> uploads = uuids.stream().map(UserRequest::getUploadedImages).toList();
+				return CompletableFuture.allOf(uploads.toArray(CompletableFuture[]::new))
+					.thenApply(v -> uploads.stream().map(CompletableFuture::join)
+						.flatMap(Optional::stream)
+						.flatMap(List::stream)
+						.toList());
+			}), url -> SHARED_THUMBNAILS.get(url, ImageShare.getInstance()::download)
+				.thenCompose(thumbnail -> load(() -> Preview.read(thumbnail.name(), thumbnail.file()))),
+			url -> ImageShare.getInstance().downloadImage(url));
+
+		private static <R> CompletableFuture<R> load(Callable<R> loader) {
+			try {
+				return CompletableFuture.supplyAsync(() -> {
+					try {
+						return loader.call();
+					} catch (Exception e) {
+						throw new CompletionException(e);
+					}
+				}, ThreadExecuter.images());
+			} catch (RejectedExecutionException e) {
+				return CompletableFuture.failedFuture(e);
+			}
+		}
 
-	private record Tab<T>(Text title, Callable<List<T>> list, Map<T, ImageInstance> loadingCache,
-						  Loader<T> loader) {
-
-		private static <T> Tab<T> of(Text title, Callable<List<T>> list, Loader<T> loader) {
-			var cache = new HashMap<T, ImageInstance>();
-			return new Tab<>(title, list, cache, o -> {
-				if (cache.containsKey(o)) {
-					return cache.get(o);
-				}
-				var val = loader.load(o);
-				cache.put(o, val);
-				return val;
-			});
+		interface Loader<T, R> {
+			CompletableFuture<R> load(T obj);
 		}
+	}
 
-		private static final Tab<Path> LOCAL = of(Text.translatable("gallery.title.local"), () -> {
-			try (Stream<Path> screenshots = Files.list(SCREENSHOTS_DIR)) {
-				return screenshots.sorted(Comparator.<Path>comparingLong(p -> {
-					try {
-						return Files.getLastModifiedTime(p).toMillis();
-					} catch (IOException e) {
-						return 0L;
-					}
-				}).reversed()).toList();
+	private record Preview(String filename, NativeImage image) {
+		private static Preview read(String filename, Path thumbnail) throws IOException {
+			try (var in = Files.newInputStream(thumbnail)) {
+				return new Preview(filename, NativeImage.read(in));
 			}
-		}, ImageInstance.LocalImpl::new);
-
-		private static final Tab<String> SHARED = of(Text.translatable("gallery.title.shared"), () ->
-			FriendRequest.getInstance().getFriendUuids()
-				.thenApply(res -> res.stream().map(UserRequest::getUploadedImages)
-					.map(CompletableFuture::join)
-					.filter(Optional::isPresent)
-					.map(Optional::get)
-					.reduce(new ArrayList<>(), (l1, l2) -> {
-						l1.addAll(l2);
-						return l1;
-					})).join(), url -> ImageShare.getInstance().downloadImage(url).join());
-
-		interface Loader<T> {
-			ImageInstance load(T obj) throws Exception;
 		}
 	}
 
@@ -107,14 +123,18 @@ private static <T> Tab<T> of(Text title, Callable<List<T>> list, Loader<T> loade
 
 	private final Screen parent;
 	private final Watcher watcher;
+	private final TextureResidency<ImageEntry, TextureSlot> residency = new TextureResidency<>(
+		() -> ScreenshotUtils.getInstance().getGalleryTextureBudget().get() * 1024L * 1024L, TextureSlot::new, TextureSlot::destroy);
+	private ImageList area;
 
 	public GalleryScreen(Screen parent) {
 		super(Text.translatable("gallery.title"));
 		this.parent = parent;
 		this.current = Tab.LOCAL;
-		this.watcher = Watcher.createSelfTicking(SCREENSHOTS_DIR, () -> {
-			if (current == Tab.LOCAL) {
-				clearAndInit();
+		this.watcher = Watcher.watch(SCREENSHOTS_DIR, changes -> {
+			GalleryIndex.Changes update = INDEX.update(changes);
+			if (!update.isEmpty()) {
+				MinecraftClient.getInstance().execute(() -> applyChanges(update));
 			}
 		});
 	}
@@ -128,8 +148,10 @@ public GalleryScreen(Screen parent) {
 
 	@Override
 	public void render(GuiGraphics graphics, int mouseX, int mouseY, float delta) {
+		residency.nextFrame();
 		renderBackground(graphics);
 		super.render(graphics, mouseX, mouseY, delta);
+		area.prefetch();
 
 		if (online) {
 			graphics.drawCenteredShadowedText(textRenderer, getTitle(), width / 2, 40 / 2 - 2 - textRenderer.fontHeight, -1);
@@ -149,17 +171,15 @@ protected void init() {
 
 		int columnCount = (width - (marginLeftRight * 2) + entrySpacing - 13) / (entryWidth + entrySpacing); // -13 to always have enough space for the scrollbar
 
-		final var area = new ImageList(client, width, height, 33, height - 40, entryHeight + entrySpacing, columnCount);
+		residency.releaseAll();
+		area = new ImageList(client, width, height, 33, height - 40, entryHeight + entrySpacing, columnCount);
 
 		setInitialFocus(area);
 		addDrawableChild(area);
-		CompletableFuture.runAsync(() -> {
-			try {
-				loadTab(current, columnCount, area);
-			} catch (Exception e) {
-				isError = true;
-				setInitialFocus(addDrawableChild(ButtonWidget.builder(Text.translatable("gallery.reload"), b -> clearAndInit()).position(width / 2 - 75, 36 + textRenderer.fontHeight + 8).build()));
-			}
+		loadTab(current, columnCount, area).exceptionally(t -> {
+			isError = true;
+			setInitialFocus(addDrawableChild(ButtonWidget.builder(Text.translatable("gallery.reload"), b -> clearAndInit()).position(width / 2 - 75, 36 + textRenderer.fontHeight + 8).build()));
+			return null;
 		});
 
 		int buttonWidth = columnCount <= 5 && online ? 100 : 150;
@@ -184,19 +204,9 @@ protected void init() {
 
 	@Override
 	public void closeScreen() {
-		Tab.LOCAL.loadingCache().forEach((path, instance) -> {
-			if (instance != null) {
-				client.getTextureManager().destroyTexture(instance.id());
-			}
-		});
-		Tab.LOCAL.loadingCache().clear();
-		Tab.SHARED.loadingCache().forEach((s, instance) -> {
-			if (instance != null) {
-				client.getTextureManager().destroyTexture(instance.id());
-			}
-		});
-		Tab.SHARED.loadingCache().clear();
+		residency.close();
 		Watcher.close(watcher);
+		INDEX.invalidate();
 		client.setScreen(parent);
 	}
 
@@ -205,20 +215,38 @@ private void setTab(Tab<?> tab) {
 		clearAndInit();
 	}
 
-	private <T> void loadTab(Tab<T> tab, int columnCount, ImageList area) throws Exception {
-		List<T> images = tab.list.call();
-		int size = images.size();
-		for (int i = 0; i < size; i += columnCount) {
-			ImageListEntry row = new ImageListEntry(columnCount, area);
-			area.addEntry(row);
-			for (int x = 0; x < columnCount; x++) {
-				if (i + x >= size) {
-					break;
+	private <T> CompletableFuture<Void> loadTab(Tab<T> tab, int columnCount, ImageList area) {
+		return tab.list.get().thenAccept(images -> {
+			int size = images.size();
+			for (int i = 0; i < size; i += columnCount) {
+				ImageListEntry row = new ImageListEntry(columnCount, area);
+				area.addEntry(row);
+				for (int x = 0; x < columnCount; x++) {
+					if (i + x >= size) {
+						break;
+					}
+					row.add(createEntry(tab, images.get(i + x)));
 				}
-				T p = images.get(i + x);
-				var entry = new ImageEntry(entryWidth, entryHeight, () -> tab.loader.load(p), row);
-				row.add(entry);
 			}
+		});
+	}
+
+	private <T> ImageEntry createEntry(Tab<T> tab, T source) {
+		return new ImageEntry(entryWidth, entryHeight, source, () -> tab.loader.load(source), () -> tab.viewer.load(source));
+	}
+
+	/**
+	 * Updates the tiles of the local tab for the screenshots that changed, without touching the other ones.
+	 */
+	private void applyChanges(GalleryIndex.Changes changes) {
+		if (current != Tab.LOCAL || area == null) {
+			return;
+		}
+		changes.removed().forEach(entry -> area.remove(entry).ifPresent(residency::release));
+		for (GalleryIndex.Entry entry : changes.added()) {
+			// tiles are sorted newest first
+			int position = (int) area.tiles().filter(tile -> tile.source instanceof GalleryIndex.Entry e && e.modified() > entry.modified()).count();
+			area.insert(position, createEntry(Tab.LOCAL, entry));
 		}
 	}
 
@@ -229,45 +257,61 @@ private class ImageEntry extends ButtonWidget {
 		private static final int accent = Colors.GRAY.withBrightness(0.5f).withAlpha(128).toInt();
 
 		private final TextRenderer font;
-		private final Callable<ImageInstance> instanceSupplier;
-		private final ImageListEntry row;
+		private final Supplier<CompletableFuture<Preview>> previewSupplier;
+		private final Supplier<CompletableFuture<ImageInstance>> viewerSupplier;
+		private final Object source;
+		private ImageListEntry row;
 		private long loadStart;
-		private CompletableFuture<ImageInstance> future;
+		private boolean loading;
 
-		protected ImageEntry(int width, int height, Callable<ImageInstance> instanceSupplier, ImageListEntry row) {
+		protected ImageEntry(int width, int height, Object source, Supplier<CompletableFuture<Preview>> previewSupplier,
+							 Supplier<CompletableFuture<ImageInstance>> viewerSupplier) {
 			super(0, 0, width, height, Text.empty(), b -> {
 			}, DEFAULT_NARRATION);
-			this.instanceSupplier = instanceSupplier;
-			this.row = row;
+			this.previewSupplier = previewSupplier;
+			this.viewerSupplier = viewerSupplier;
+			this.source = source;
 			this.font = MinecraftClient.getInstance().textRenderer;
 		}
 
-		private CompletableFuture<ImageInstance> load() {
-			if (future == null) {
+		private TextureSlot slot() {
+			TextureSlot slot = residency.get(this);
+			if (slot == null && !loading) {
+				loading = true;
 				loadStart = Util.getMeasuringTimeMs();
-				future = CompletableFuture.supplyAsync(() -> {
-					try {
-						var instance = instanceSupplier.call();
-						setMessage(Text.literal(instance.filename()));
-						return instance;
-					} catch (Exception e) {
+				previewSupplier.get().whenComplete((preview, throwable) -> client.execute(() -> {
+					loading = false;
+					if (throwable != null) {
 						row.remove(this);
-						return null;
+						return;
 					}
-				});
+					setMessage(Text.literal(preview.filename()));
+					TextureSlot target = residency.acquire(this);
+					if (target != null) {
+						target.upload(preview.image());
+					} else {
+						preview.image().close();
+					}
+				}));
 			}
-			return future;
+			return slot;
+		}
+
+		private void prefetch() {
+			slot();
 		}
 
 		@Override
 		public void onPress() {
-			client.setScreen(ImageScreen.create(GalleryScreen.this, load(), false));
+			client.setScreen(ImageScreen.create(GalleryScreen.this, viewerSupplier.get().exceptionally(t -> null), true));
 		}
 
 		@Override
 		protected void drawWidget(GuiGraphics guiGraphics, int mouseX, int mouseY, float partialTick) {
-			if (load().isDone()) {
-				guiGraphics.drawTexture(load().join().id(), getX(), getY(), 0, 0, getWidth(), getHeight() - font.fontHeight - 2, getWidth(), getHeight() - font.fontHeight - 2);
+			TextureSlot slot = slot();
+			if (slot != null) {
+				int height = getHeight() - font.fontHeight - 2;
+				guiGraphics.drawTexture(slot.id, getX(), getY(), 0, 0, getWidth(), height, slot.scaleWidth(getWidth()), slot.scaleHeight(height));
 				drawScrollableText(guiGraphics, font, -1);
 			} else {
 				float delta = (float) easeInOutCubic((Util.getMeasuringTimeMs() - loadStart) % 1000f / 1000f);
@@ -338,6 +382,7 @@ public ImageListEntry(int size, ImageList list) {
 
 		@Override
 		public void render(GuiGraphics guiGraphics, int index, int top, int left, int width, int height, int mouseX, int mouseY, boolean hovering, float partialTick) {
+			list.markVisible(index);
 			if (Math.max(left, list.getRowLeft()) <= Math.min(left + width, list.getRowLeft() + list.getArea().width()) - 1 &&
 				Math.max(top - height, list.getArea().y()) <= Math.min(top + height * 2, list.getArea().y() + list.getArea().height()) - 1) {
 				buttons.forEach(e -> {
@@ -353,7 +398,19 @@ public void render(GuiGraphics guiGraphics, int index, int top, int left, int wi
 
 		public void add(ImageEntry e) {
 			buttons.add(e);
+			e.row = this;
+			repositionButtons();
+		}
+
+		/**
+		 * @return the last tile of this row if it no longer fits
+		 */
+		private ImageEntry insert(int index, ImageEntry e) {
+			buttons.add(index, e);
+			e.row = this;
+			ImageEntry overflow = buttons.size() > size ? buttons.remove(buttons.size() - 1) : null;
 			repositionButtons();
+			return overflow;
 		}
 
 		public void remove(ImageEntry e) {
@@ -374,6 +431,10 @@ private void repositionButtons() {
 			}
 		}
 
+		private void prefetch() {
+			buttons.forEach(ImageEntry::prefetch);
+		}
+
 		public ImageEntry pop() {
 			var entry = buttons.remove(0);
 			if (buttons.isEmpty()) {
@@ -394,10 +455,13 @@ public ImageEntry pop() {
 	private static class ImageList extends ElementListWidget<ImageListEntry> {
 
 		private final int rowWidth;
+		private final int columns;
+		private int firstVisible = Integer.MAX_VALUE, lastVisible = -1;
 
 		public ImageList(MinecraftClient minecraft, int screenWidth, int screenHeight, int top, int bottom, int entryHeight, int columns) {
 			super(minecraft, screenWidth, screenHeight, top, bottom, entryHeight);
 			this.rowWidth = columns * (entryWidth + entrySpacing) - entrySpacing;
+			this.columns = columns;
 		}
 
 		@Override
@@ -405,6 +469,53 @@ public int addEntry(ImageListEntry entry) {
 			return super.addEntry(entry);
 		}
 
+		private Stream<ImageEntry> tiles() {
+			return children().stream().flatMap(row -> row.buttons.stream());
+		}
+
+		private Optional<ImageEntry> remove(Object source) {
+			Optional<ImageEntry> tile = tiles().filter(e -> e.source.equals(source)).findFirst();
+			tile.ifPresent(e -> e.row.remove(e));
+			return tile;
+		}
+
+		/**
+		 * Inserts a tile at the given position, moving all following tiles one place further.
+		 */
+		private void insert(int position, ImageEntry entry) {
+			List<ImageListEntry> rows = children();
+			int index = position % columns;
+			ImageEntry carry = entry;
+			for (int row = position / columns; carry != null; row++) {
+				if (row == rows.size()) {
+					addEntry(new ImageListEntry(columns, this));
+				}
+				carry = rows.get(row).insert(index, carry);
+				index = 0;
+			}
+		}
+
+		private void markVisible(int index) {
+			firstVisible = Math.min(firstVisible, index);
+			lastVisible = Math.max(lastVisible, index);
+		}
+
+		/**
+		 * Loads the rows around the ones that were rendered in this frame, so they are ready once they are scrolled into view.
+		 */
+		private void prefetch() {
+			List<ImageListEntry> rows = children();
+			int from = Math.max(0, firstVisible - TextureResidency.WINDOW_ROWS);
+			int to = Math.min(rows.size() - 1, lastVisible + TextureResidency.WINDOW_ROWS);
+			for (int i = from; i <= to; i++) {
+				if (i < firstVisible || i > lastVisible) {
+					rows.get(i).prefetch();
+				}
+			}
+			firstVisible = Integer.MAX_VALUE;
+			lastVisible = -1;
+		}
+
 		@Override
 		public int getRowWidth() {
 			return rowWidth;
@@ -439,4 +550,41 @@ public boolean isInListContent(int x, int y) {
 			return x >= left && x < right && y >= top && y < bottom;
 		}
 	}
+
+	/**
+	 * A texture of the size of the largest possible thumbnail, see {@link TextureResidency}.
+	 */
+	private static class TextureSlot {
+		private static int count;
+
+		private final Identifier id = new Identifier("axolotlclient", "gallery_slot_" + count++);
+		private final NativeImageBackedTexture texture = new NativeImageBackedTexture(ThumbnailCache.MAX_WIDTH, ThumbnailCache.MAX_HEIGHT, false);
+		private int width, height;
+
+		private TextureSlot() {
+			MinecraftClient.getInstance().getTextureManager().registerTexture(id, texture);
+		}
+
+		private void upload(NativeImage image) {
+			width = image.getWidth();
+			height = image.getHeight();
+			texture.bindTexture();
+			image.upload(0, 0, 0, true);
+		}
+
+		/**
+		 * @return the texture width to pass when drawing, so that only the part holding the image gets stretched to the given width
+		 */
+		private int scaleWidth(int width) {
+			return width * ThumbnailCache.MAX_WIDTH / Math.max(1, this.width);
+		}
+
+		private int scaleHeight(int height) {
+			return height * ThumbnailCache.MAX_HEIGHT / Math.max(1, this.height);
+		}
+
+		private void destroy() {
+			MinecraftClient.getInstance().getTextureManager().destroyTexture(id);
+		}
+	}
 }
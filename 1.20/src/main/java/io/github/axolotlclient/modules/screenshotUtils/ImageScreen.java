@@ -87,7 +87,7 @@ public void render(GuiGraphics graphics, int mouseX, int mouseY, float delta) {
 			ImageInstance.Remote r = (ImageInstance.Remote) image;
 			graphics.drawCenteredShadowedText(textRenderer, getTitle(), width / 2, 38 / 2 - textRenderer.fontHeight - 2, -1);
 			graphics.drawCenteredShadowedText(textRenderer,
-				Text.translatable("gallery.image.upload_details", UUIDHelper.getUsername(r.uploader()),
+				Text.translatable("gallery.image.upload_details", UUIDHelper.getCachedUsername(r.uploader()),
 					r.sharedAt().atZone(ZoneId.systemDefault()).format(AxolotlClientCommon.getInstance().formatter)),
 				width/2, 38/2 + 2, -1);
 		} else {
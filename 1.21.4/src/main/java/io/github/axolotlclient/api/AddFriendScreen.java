@@ -34,7 +34,7 @@ public AddFriendScreen(Screen parent) {
 		super(parent, Component.translatable("api.screen.friends.add"),
 			Component.translatable("api.screen.friends.add.name"), string -> {
 				if (API.getInstance().isSocketConnected()) {
-					FriendRequest.getInstance().addFriend(UUIDHelper.ensureUuid(string));
+					UUIDHelper.ensureUuidAsync(string).thenAccept(uuid -> FriendRequest.getInstance().addFriend(uuid.orElse(string)));
 				} else {
 					Notifications.getInstance().addStatus("api.error.notLoggedIn", "api.error.notLoggedIn.desc");
 				}
@@ -22,9 +22,10 @@
 
 package io.github.axolotlclient.api;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.stream.Collectors;
 
 import com.mojang.blaze3d.platform.InputConstants;
 import io.github.axolotlclient.api.chat.ChatWidget;
@@ -108,9 +109,9 @@ protected void init() {
 				.map(e -> (AbstractButton) e).filter(e -> e.getMessage().equals(Component.translatable("api.chats"))).forEach(e -> e.visible = false);
 		}
 
-		ChannelRequest.getChannelList().whenCompleteAsync((list, t) ->
-			addRenderableWidget(this.list = new ListWidget(list, 10, 30, 50, height - 70))
-		);
+		ListWidget widget = new ListWidget(10, 30, 50, height - 70);
+		addRenderableWidget(this.list = widget);
+		ChannelRequest.getChannelList(channel -> minecraft.execute(() -> widget.addChannel(channel)));
 
 		addRenderableWidget(Button.builder(CommonComponents.GUI_BACK, buttonWidget -> remove()).bounds(10 - sidebarWidth, height - 30, 50, 20).build());
 		addRenderableWidget(contextMenu = new ContextMenuContainer());
@@ -251,6 +252,7 @@ public Screen getParent() {
 
 	private class ListWidget extends AbstractContainerEventHandler implements Renderable, GuiEventListener, NarratableEntry {
 		private final List<AbstractButton> elements;
+		private final List<Channel> channels = new ArrayList<>();
 		private final int y;
 		private final int width;
 		private final int height;
@@ -260,18 +262,25 @@ private class ListWidget extends AbstractContainerEventHandler implements Render
 		private int scrollAmount;
 		private boolean visible;
 
-		public ListWidget(List<Channel> list, int x, int y, int width, int height) {
+		public ListWidget(int x, int y, int width, int height) {
 			this.x = x;
 			this.y = y;
 			this.width = width;
 			this.height = height;
-			AtomicInteger buttonY = new AtomicInteger(y);
-			elements = list.stream().sorted((u1, u2) -> new AlphabeticalComparator().compare(u1.getName(), u2.getName()))
-				.map(channel -> Button.builder(Component.literal(channel.getName()), buttonWidget -> {
-						addChat(channel);
-						buttonWidget.active = false;
-					})
-					.bounds(x, buttonY.getAndAdd(entryHeight), width, entryHeight - 5).build()).collect(Collectors.toList());
+			elements = new ArrayList<>();
+		}
+
+		public void addChannel(Channel channel) {
+			int index = Collections.binarySearch(channels, channel, (c1, c2) -> new AlphabeticalComparator().compare(c1.getName(), c2.getName()));
+			if (index < 0) {
+				index = -index - 1;
+			}
+			channels.add(index, channel);
+			elements.add(index, Button.builder(Component.literal(channel.getName()), buttonWidget -> {
+					addChat(channel);
+					buttonWidget.active = false;
+				})
+				.bounds(x, y + index * entryHeight, width, entryHeight - 5).build());
 		}
 
 		@Override
@@ -22,10 +22,13 @@
 
 package io.github.axolotlclient.api.chat;
 
+import java.util.List;
+
 import io.github.axolotlclient.api.ContextMenuContainer;
 import io.github.axolotlclient.api.ContextMenuScreen;
 import io.github.axolotlclient.api.requests.ChannelRequest;
 import io.github.axolotlclient.api.types.Channel;
+import io.github.axolotlclient.api.types.ChannelIndex;
 import net.minecraft.client.gui.GuiGraphics;
 import net.minecraft.client.gui.components.Button;
 import net.minecraft.client.gui.screens.Screen;
@@ -62,13 +65,23 @@ protected void init() {
 		addRenderableWidget(Button.builder(Component.translatable("api.chat.groups.create"), buttonWidget ->
 				minecraft.setScreen(new CreateChannelScreen(this)))
 			.bounds(this.width / 2 - 155, this.height - 40, 150, 20).build());
-		ChannelRequest.getChannelList().whenCompleteAsync((list, t) -> {
-			groups.addChannels(list);
-			dms.addChannels(list);
-		});
+		ChannelIndex.getInstance().setListener(id -> minecraft.execute(() -> {
+			groups.update(id);
+			dms.update(id);
+		}));
+		List<Channel> channels = ChannelIndex.getInstance().getChannels();
+		groups.setChannels(channels);
+		dms.setChannels(channels);
+		// the loaded channels reach the lists through the listener
+		ChannelRequest.getChannelList();
 		addRenderableOnly(container);
 	}
 
+	@Override
+	public void removed() {
+		ChannelIndex.getInstance().setListener(ChannelIndex.NO_LISTENER);
+	}
+
 	@Override
 	public ContextMenuContainer getMenuContainer() {
 		return container;
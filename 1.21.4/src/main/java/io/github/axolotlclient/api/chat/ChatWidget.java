@@ -77,6 +77,7 @@ public ChatWidget(Channel channel, int x, int y, int width, int height, ContextM
 		ChatHandler.getInstance().setMessagesConsumer(chatMessages -> chatMessages.forEach(this::addMessage));
 		ChatHandler.getInstance().setMessageConsumer(this::addMessage);
 		ChatHandler.getInstance().setEnableNotifications(message -> !message.channelId().equals(channel.getId()));
+		ChatHandler.getInstance().setShownMessages(message -> message.channelId().equals(channel.getId()));
 
 		setScrollAmount(maxScrollAmount());
 	}
@@ -145,6 +146,7 @@ public void remove() {
 		ChatHandler.getInstance().setMessagesConsumer(ChatHandler.DEFAULT_MESSAGES_CONSUMER);
 		ChatHandler.getInstance().setMessageConsumer(ChatHandler.DEFAULT_MESSAGE_CONSUMER);
 		ChatHandler.getInstance().setEnableNotifications(ChatHandler.DEFAULT);
+		ChatHandler.getInstance().setShownMessages(ChatHandler.NOT_SHOWN);
 	}
 
 	@Override
@@ -22,14 +22,19 @@
 
 package io.github.axolotlclient.mixin;
 
+import java.util.List;
+
+import io.github.axolotlclient.AxolotlClient;
 import io.github.axolotlclient.modules.hud.HudManager;
 import io.github.axolotlclient.modules.hud.gui.hud.vanilla.CrosshairHud;
+import io.github.axolotlclient.util.DebugInfo;
 import net.minecraft.client.gui.GuiGraphics;
 import net.minecraft.client.gui.components.DebugScreenOverlay;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
 @Mixin(DebugScreenOverlay.class)
 public abstract class DebugHudMixin {
@@ -42,4 +47,11 @@ public abstract class DebugHudMixin {
 			hud.render(graphics, 0);
 		}
 	}
+
+	@Inject(method = "getSystemInformation", at = @At("RETURN"))
+	public void axolotlclient$addDebugInfo(CallbackInfoReturnable<List<String>> cir) {
+		if (AxolotlClient.CONFIG.debugLogOutput.get()) {
+			cir.getReturnValue().addAll(DebugInfo.getLines());
+		}
+	}
 }
@@ -27,6 +27,7 @@
 import io.github.axolotlclient.AxolotlClient;
 import io.github.axolotlclient.api.requests.UserRequest;
 import io.github.axolotlclient.modules.hypixel.HypixelAbstractionLayer;
+import io.github.axolotlclient.modules.hypixel.RequestPriority;
 import io.github.axolotlclient.modules.hypixel.bedwars.BedwarsMod;
 import io.github.axolotlclient.modules.hypixel.levelhead.LevelHead;
 import io.github.axolotlclient.modules.hypixel.levelhead.LevelHeadMode;
@@ -117,7 +118,7 @@
 							textRenderer.drawInBatch(text, x, y, LevelHead.getInstance().textColor.get().toInt(), AxolotlClient.CONFIG.useShadows.get(), matrix4f, vertexConsumers, Font.DisplayMode.NORMAL, LevelHead.getInstance().background.get() ? 127 : 0, light);
 						}
 					} else if (LevelHead.getInstance().enabled.get()) {
-						String text = "Level: " + HypixelAbstractionLayer.getPlayerLevel(String.valueOf(entity.getUUID()), LevelHead.getInstance().mode.get());
+						String text = "Level: " + HypixelAbstractionLayer.getPlayerLevel(String.valueOf(entity.getUUID()), LevelHead.getInstance().mode.get(), RequestPriority.HIGH);
 
 						if (LevelHead.getInstance().mode.get().equals(LevelHeadMode.BEDWARS)) {
 							text += "☆";
@@ -91,7 +91,15 @@ protected void init() {
 
 		if (image instanceof ImageInstance.Remote remote) {
 			layout.setHeaderHeight(38);
-			header.addChild(new StringWidget(Component.translatable("gallery.image.upload_details", UUIDHelper.getUsername(remote.uploader()), remote.sharedAt().atZone(ZoneId.systemDefault()).format(AxolotlClientCommon.getInstance().formatter)), font));
+			String uploader = UUIDHelper.getCachedUsername(remote.uploader());
+			if (uploader.equals(remote.uploader())) {
+				UUIDHelper.resolveUsername(remote.uploader()).thenAccept(name -> name.ifPresent(n -> minecraft.execute(() -> {
+					if (minecraft.screen == this) {
+						rebuildWidgets();
+					}
+				})));
+			}
+			header.addChild(new StringWidget(Component.translatable("gallery.image.upload_details", uploader, remote.sharedAt().atZone(ZoneId.systemDefault()).format(AxolotlClientCommon.getInstance().formatter)), font));
 		}
 
 		int buttonWidth = 75;
@@ -35,6 +35,7 @@
 import io.github.axolotlclient.AxolotlClient;
 import io.github.axolotlclient.AxolotlClientConfig.api.options.OptionCategory;
 import io.github.axolotlclient.AxolotlClientConfig.impl.options.BooleanOption;
+import io.github.axolotlclient.AxolotlClientConfig.impl.options.IntegerOption;
 import io.github.axolotlclient.AxolotlClientConfig.impl.options.StringArrayOption;
 import io.github.axolotlclient.api.API;
 import io.github.axolotlclient.modules.AbstractModule;
@@ -100,9 +101,12 @@ public class ScreenshotUtils extends AbstractModule {
 		return names.toArray(new String[0]);
 	}), "off");
 
+	@Getter
+	private final IntegerOption galleryTextureBudget = new IntegerOption("galleryTextureBudget", 64, 16, 1024);
+
 	@Override
 	public void init() {
-		category.add(enabled, autoExec, new GenericOption("imageViewer", "openViewer", () ->
+		category.add(enabled, autoExec, galleryTextureBudget, new GenericOption("imageViewer", "openViewer", () ->
 			client.setScreen(new GalleryScreen(client.screen))));
 
 		AxolotlClient.CONFIG.general.add(category);
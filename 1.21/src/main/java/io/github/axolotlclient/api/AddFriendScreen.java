@@ -22,8 +22,6 @@
 
 package io.github.axolotlclient.api;
 
-import java.util.UUID;
-
 import io.github.axolotlclient.api.requests.FriendRequest;
 import io.github.axolotlclient.api.util.UUIDHelper;
 import io.github.axolotlclient.util.notifications.Notifications;
@@ -37,13 +35,7 @@ public AddFriendScreen(Screen parent) {
 			Text.translatable("api.screen.friends.add.name"),
 			string -> {
 				if (API.getInstance().isSocketConnected()) {
-					String uuid;
-					try {
-						uuid = API.getInstance().sanitizeUUID(UUID.fromString(string).toString());
-					} catch (IllegalArgumentException e) {
-						uuid = UUIDHelper.getUuid(string);
-					}
-					FriendRequest.getInstance().addFriend(uuid);
+					UUIDHelper.ensureUuidAsync(string).thenAccept(uuid -> FriendRequest.getInstance().addFriend(uuid.orElse(string)));
 				} else {
 					Notifications.getInstance().addStatus("api.error.notLoggedIn", "api.error.notLoggedIn.desc");
 				}
@@ -193,8 +193,8 @@ public void searchFriends(String s, int i, Consumer<FriendListFriend> consumer)
             if (s.isEmpty()) {
                 return;
             }
-            Optional<String> uuidOpt = UUIDHelper.ensureUuidOpt(s);
-            uuidOpt.ifPresent(uuid -> UserRequest.get(uuid).thenAccept(o -> o.map(AxolotlClientFriendListFriend::new).ifPresent(consumer)));
+            UUIDHelper.ensureUuidAsync(s).thenAccept(uuidOpt -> uuidOpt.ifPresent(uuid ->
+                UserRequest.get(uuid).thenAccept(o -> o.map(AxolotlClientFriendListFriend::new).ifPresent(consumer))));
         }
 
         @Override
@@ -22,11 +22,13 @@
 
 package io.github.axolotlclient.modules.screenshotUtils;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 import lombok.Getter;
 import lombok.Setter;
 import net.minecraft.client.font.TextRenderer;
+import net.minecraft.client.gui.GuiGraphics;
 import net.minecraft.client.gui.screen.Screen;
 import net.minecraft.client.gui.widget.TextFieldWidget;
 import net.minecraft.client.gui.widget.Widget;
@@ -45,6 +47,9 @@ public class DownloadImageScreen extends Screen {
 	private static final Identifier SPRITE = Identifier.of("axolotlclient", "go");
 
 	private final Screen parent;
+	private CompletableFuture<ImageInstance> download;
+	private volatile float progress;
+	private boolean failed;
 
 	public DownloadImageScreen(Screen parent) {
 		super(Text.translatable("viewScreenshot"));
@@ -71,10 +76,10 @@ protected void init() {
 		linear.add(urlBox);
 		linear.add(SpriteButtonWidget.builder(Text.translatable("download"), b -> {
 				String url = urlBox.getText().trim();
-				if (url.isEmpty()) {
+				if (url.isEmpty() || download != null) {
 					return;
 				}
-				client.setScreen(ImageScreen.create(this, ImageShare.getInstance().downloadImage(url), true));
+				download(url);
 			}, true)
 			.sprite(SPRITE, 20, 20)
 			.width(20).build()).setPosition(width / 2 + 100 + 4, height / 2 - 10);
@@ -86,11 +91,48 @@ protected void init() {
 		setInitialFocus(urlBox);
 	}
 
+	private void download(String url) {
+		progress = -1;
+		failed = false;
+		var future = ImageShare.getInstance().downloadImage(url, (read, total) -> progress = total > 0 ? (float) read / total : -1);
+		download = future;
+		future.whenComplete((image, throwable) -> client.execute(() -> {
+			if (download == future) {
+				download = null;
+				if (image != null) {
+					client.setScreen(ImageScreen.create(this, future, true));
+				} else {
+					failed = true;
+				}
+			}
+		}));
+	}
+
+	@Override
+	public void render(GuiGraphics graphics, int mouseX, int mouseY, float delta) {
+		super.render(graphics, mouseX, mouseY, delta);
+		if (download != null) {
+			float progress = this.progress;
+			Text status = progress < 0 ? Text.translatable("gallery.image.loading.title") : Text.translatable("gallery.image.download.progress", (int) (progress * 100));
+			graphics.drawCenteredShadowedText(textRenderer, status, width / 2, height / 2 + 16, -1);
+		} else if (failed) {
+			graphics.drawCenteredShadowedText(textRenderer, Text.translatable("gallery.image.download.failure"), width / 2, height / 2 + 16, 0xFFFF5555);
+		}
+	}
+
 	@Override
 	public void closeScreen() {
 		client.setScreen(parent);
 	}
 
+	@Override
+	public void removed() {
+		if (download != null) {
+			download.cancel(false);
+			download = null;
+		}
+	}
+
 
 	public static class ImprovedHeaderAndFooterLayout implements LayoutWidget {
 		public static final int DEFAULT_HEADER_AND_FOOTER_HEIGHT = 33;
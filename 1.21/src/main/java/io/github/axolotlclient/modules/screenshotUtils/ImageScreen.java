@@ -89,7 +89,15 @@ protected void init() {
 
         if (image instanceof ImageInstance.Remote remote) {
             layout.setHeaderHeight(38);
-            header.add(new TextWidget(Text.translatable("gallery.image.upload_details", UUIDHelper.getUsername(remote.uploader()), remote.sharedAt().atZone(ZoneId.systemDefault()).format(AxolotlClientCommon.getInstance().formatter)), textRenderer));
+            String uploader = UUIDHelper.getCachedUsername(remote.uploader());
+            if (uploader.equals(remote.uploader())) {
+                UUIDHelper.resolveUsername(remote.uploader()).thenAccept(name -> name.ifPresent(n -> client.execute(() -> {
+                    if (client.currentScreen == this) {
+                        clearAndInit();
+                    }
+                })));
+            }
+            header.add(new TextWidget(Text.translatable("gallery.image.upload_details", uploader, remote.sharedAt().atZone(ZoneId.systemDefault()).format(AxolotlClientCommon.getInstance().formatter)), textRenderer));
         }
 
         int buttonWidth = 75;
@@ -22,9 +22,9 @@
 
 package io.github.axolotlclient.api;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.stream.Collectors;
 
 import com.mojang.blaze3d.platform.GlStateManager;
 import io.github.axolotlclient.api.chat.ChatWidget;
@@ -116,9 +116,8 @@ public void init() {
 				.filter(e -> e.message.equals(I18n.translate("api.chats"))).forEach(e -> e.visible = false);
 		}
 
-		ChannelRequest.getChannelList().whenCompleteAsync((list, t) ->
-			this.list = new ListWidget(list, 10, 30, 50, height - 70)
-		);
+		ListWidget widget = this.list = new ListWidget(10, 30, 50, height - 70);
+		ChannelRequest.getChannelList(channel -> minecraft.submit(() -> widget.addChannel(channel)));
 
 		buttons.add(new ButtonWidget(0, 10 - sidebarWidth, height - 30, 50, 20, I18n.translate("gui.back")));
 		contextMenu = new ContextMenuContainer();
@@ -301,22 +300,30 @@ public interface Action {
 
 	private class ListWidget extends EntryListWidget {
 		private final List<UserButton> elements;
+		private final List<Channel> channels = new ArrayList<>();
 		private final int entryHeight = 25;
 		private boolean visible = true;
 
-		public ListWidget(List<Channel> list, int x, int y, int width, int height) {
+		public ListWidget(int x, int y, int width, int height) {
 			super(Minecraft.getInstance(), width, height, y, ChatsSidebar.this.height - y, 25);
 			minX = x;
 			maxX = x + width;
 			minY = y;
 			maxY = y + height;
-			AtomicInteger buttonY = new AtomicInteger(y);
-			elements = list.stream().sorted((u1, u2) -> new AlphabeticalComparator().compare(u1.getName(), u2.getName()))
-				.map(channel -> new UserButton(x, buttonY.getAndAdd(entryHeight), width, entryHeight - 5,
-					channel.getName(), buttonWidget -> {
-					addChat(channel);
-					buttonWidget.active = false;
-				})).collect(Collectors.toList());
+			elements = new ArrayList<>();
+		}
+
+		public void addChannel(Channel channel) {
+			int index = Collections.binarySearch(channels, channel, (c1, c2) -> new AlphabeticalComparator().compare(c1.getName(), c2.getName()));
+			if (index < 0) {
+				index = -index - 1;
+			}
+			channels.add(index, channel);
+			elements.add(index, new UserButton(getX(), minY + index * entryHeight, width, entryHeight - 5,
+				channel.getName(), buttonWidget -> {
+				addChat(channel);
+				buttonWidget.active = false;
+			}));
 		}
 
 		public int getX() {
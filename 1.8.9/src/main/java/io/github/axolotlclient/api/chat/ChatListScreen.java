@@ -22,10 +22,13 @@
 
 package io.github.axolotlclient.api.chat;
 
+import java.util.List;
+
 import io.github.axolotlclient.api.ContextMenuContainer;
 import io.github.axolotlclient.api.ContextMenuScreen;
 import io.github.axolotlclient.api.requests.ChannelRequest;
 import io.github.axolotlclient.api.types.Channel;
+import io.github.axolotlclient.api.types.ChannelIndex;
 import net.minecraft.client.gui.screen.Screen;
 import net.minecraft.client.gui.widget.ButtonWidget;
 import net.minecraft.client.resource.language.I18n;
@@ -64,10 +67,20 @@ public void init() {
 		buttons.add(new ButtonWidget(0, this.width / 2 + 5, this.height - 40, 150, 20, I18n.translate("gui.back")));
 		buttons.add(new ButtonWidget(1, this.width / 2 - 155, this.height - 40, 150, 20,
 			I18n.translate("api.chat.groups.create")));
-		ChannelRequest.getChannelList().thenAccept(list -> {
-			groups.addChannels(list);
-			dms.addChannels(list);
-		});
+		ChannelIndex.getInstance().setListener(id -> minecraft.submit(() -> {
+			groups.update(id);
+			dms.update(id);
+		}));
+		List<Channel> channels = ChannelIndex.getInstance().getChannels();
+		groups.setChannels(channels);
+		dms.setChannels(channels);
+		// the loaded channels reach the lists through the listener
+		ChannelRequest.getChannelList();
+	}
+
+	@Override
+	public void removed() {
+		ChannelIndex.getInstance().setListener(ChannelIndex.NO_LISTENER);
 	}
 
 	@Override
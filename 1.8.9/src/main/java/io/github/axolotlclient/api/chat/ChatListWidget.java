@@ -31,6 +31,7 @@
 import io.github.axolotlclient.api.ContextMenuScreen;
 import io.github.axolotlclient.api.requests.ChannelRequest;
 import io.github.axolotlclient.api.types.Channel;
+import io.github.axolotlclient.api.types.ChannelIndex;
 import io.github.axolotlclient.api.types.Relation;
 import io.github.axolotlclient.modules.hud.util.DrawUtil;
 import net.minecraft.client.Minecraft;
@@ -44,6 +45,7 @@ public class ChatListWidget extends EntryListWidget {
 
 	protected final ContextMenuScreen screen;
 	private final Predicate<Channel> predicate;
+	private String activeChannel;
 
 	private final List<ChatListEntry> entries = new ArrayList<>();
 
@@ -54,13 +56,34 @@ public ChatListWidget(ContextMenuScreen screen, int screenWidth, int screenHeigh
 		this.predicate = filter;
 	}
 
-	public void addChannels(List<Channel> channels) {
-		channels.stream().filter(predicate).sorted().forEach(c -> entries.add(0, new ChatListEntry(c)));
+	/**
+	 * Shows the given channels, which are expected in the order of the {@link ChannelIndex}.
+	 */
+	public void setChannels(List<Channel> channels) {
+		entries.clear();
+		channels.stream().filter(predicate).forEach(c -> entries.add(new ChatListEntry(c)));
 		scrollAmount = 0;
 	}
 
+	/**
+	 * Moves the entry of a channel to the position the index has it at, or removes it if it isn't indexed anymore.
+	 */
+	public void update(String channelId) {
+		entries.removeIf(e -> e.channel.getId().equals(channelId));
+		Channel channel = ChannelIndex.getInstance().get(channelId).filter(predicate).orElse(null);
+		if (channel == null) {
+			return;
+		}
+		int index = 0;
+		while (index < entries.size() && ChannelIndex.ORDER.compare(entries.get(index).channel, channel) < 0) {
+			index++;
+		}
+		entries.add(index, new ChatListEntry(channel));
+	}
+
 	public void setActiveChannel(Channel channel) {
-		entries.stream().filter(e -> e.channel.equals(channel))
+		activeChannel = channel.getId();
+		entries.stream().filter(e -> e.channel.getId().equals(activeChannel))
 			.findFirst().ifPresent(c -> c.widget.active = false);
 	}
 
@@ -108,6 +131,7 @@ public void drawCenteredString(TextRenderer textRenderer, String string, int i,
 					DrawUtil.drawScrollableText(textRenderer, string, x + 2, y, x + width - 2, y + height, k);
 				}
 			};
+			widget.active = !channel.getId().equals(activeChannel);
 		}
 
 		@Override
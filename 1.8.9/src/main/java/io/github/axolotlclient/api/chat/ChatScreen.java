@@ -22,12 +22,15 @@
 
 package io.github.axolotlclient.api.chat;
 
+import java.util.List;
+
 import io.github.axolotlclient.api.API;
 import io.github.axolotlclient.api.ContextMenuContainer;
 import io.github.axolotlclient.api.ContextMenuScreen;
 import io.github.axolotlclient.api.handlers.ChatHandler;
 import io.github.axolotlclient.api.requests.ChannelRequest;
 import io.github.axolotlclient.api.types.Channel;
+import io.github.axolotlclient.api.types.ChannelIndex;
 import io.github.axolotlclient.modules.hud.util.DrawUtil;
 import net.minecraft.client.gui.screen.Screen;
 import net.minecraft.client.gui.widget.ButtonWidget;
@@ -75,7 +78,13 @@ public void render(int mouseX, int mouseY, float delta) {
 	@Override
 	public void init() {
 		chatListWidget = new ChatListWidget(this, width, height, 0, 30, 55, height - 90);
-		ChannelRequest.getChannelList().thenAccept(chatListWidget::addChannels).thenRun(() -> chatListWidget.setActiveChannel(channel));
+		ChannelIndex.getInstance().setListener(id -> minecraft.submit(() -> chatListWidget.update(id)));
+		List<Channel> channels = ChannelIndex.getInstance().getChannels();
+		chatListWidget.setChannels(channels);
+		chatListWidget.setActiveChannel(channel);
+		if (channels.isEmpty()) {
+			ChannelRequest.getChannelList();
+		}
 
 		widget = new ChatWidget(channel, 65, 30, width - 155, height - 90, this);
 
@@ -131,6 +140,7 @@ public void removed() {
 		if (widget != null) {
 			widget.remove();
 		}
+		ChannelIndex.getInstance().setListener(ChannelIndex.NO_LISTENER);
 		Keyboard.enableRepeatEvents(false);
 	}
 
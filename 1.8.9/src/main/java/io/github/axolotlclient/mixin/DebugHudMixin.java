@@ -22,8 +22,15 @@
 
 package io.github.axolotlclient.mixin;
 
+import java.util.List;
+
+import io.github.axolotlclient.AxolotlClient;
+import io.github.axolotlclient.util.DebugInfo;
 import net.minecraft.client.gui.overlay.DebugOverlay;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
 @Mixin(DebugOverlay.class)
 public abstract class DebugHudMixin {
@@ -36,4 +43,11 @@ public abstract class DebugHudMixin {
 		}
 		return ClientBrandRetriever.getClientModName();
 	}*/
+
+	@Inject(method = "getGameInfo", at = @At("RETURN"))
+	public void axolotlclient$addDebugInfo(CallbackInfoReturnable<List<String>> cir) {
+		if (AxolotlClient.CONFIG.debugLogOutput.get()) {
+			cir.getReturnValue().addAll(DebugInfo.getLines());
+		}
+	}
 }
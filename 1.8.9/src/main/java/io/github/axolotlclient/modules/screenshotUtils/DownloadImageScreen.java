@@ -22,6 +22,8 @@
 
 package io.github.axolotlclient.modules.screenshotUtils;
 
+import java.util.concurrent.CompletableFuture;
+
 import com.mojang.blaze3d.platform.GlStateManager;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.screen.Screen;
@@ -34,6 +36,9 @@ public class DownloadImageScreen extends Screen {
 	private static final Identifier SPRITE = new Identifier("axolotlclient", "textures/gui/sprites/go.png");
 
 	private final Screen parent;
+	private CompletableFuture<ImageInstance> download;
+	private volatile float progress;
+	private boolean failed;
 
 	private final String title;
 	private TextFieldWidget urlBox;
@@ -49,6 +54,13 @@ public void render(int mouseX, int mouseY, float delta) {
 		urlBox.render();
 		super.render(mouseX, mouseY, delta);
 		drawCenteredString(textRenderer, title, width / 2, 33 / 2 - textRenderer.fontHeight / 2, -1);
+		if (download != null) {
+			float progress = this.progress;
+			String status = progress < 0 ? I18n.translate("gallery.image.loading.title") : I18n.translate("gallery.image.download.progress", (int) (progress * 100));
+			drawCenteredString(textRenderer, status, width / 2, height / 2 + 16, -1);
+		} else if (failed) {
+			drawCenteredString(textRenderer, I18n.translate("gallery.image.download.failure"), width / 2, height / 2 + 16, 0xFFFF5555);
+		}
 	}
 
 	@Override
@@ -88,15 +100,40 @@ public void render(Minecraft client, int mouseX, int mouseY) {
 	protected void buttonClicked(ButtonWidget buttonWidget) {
 		if (buttonWidget.id == 1) {
 			String url = urlBox.getText().trim();
-			if (url.isEmpty()) {
+			if (url.isEmpty() || download != null) {
 				return;
 			}
-			minecraft.openScreen(ImageScreen.create(this, ImageShare.getInstance().downloadImage(url), true));
+			download(url);
 		} else if (buttonWidget.id == 2) {
 			minecraft.openScreen(parent);
 		}
 	}
 
+	private void download(String url) {
+		progress = -1;
+		failed = false;
+		var future = ImageShare.getInstance().downloadImage(url, (read, total) -> progress = total > 0 ? (float) read / total : -1);
+		download = future;
+		future.whenComplete((image, throwable) -> minecraft.submit(() -> {
+			if (download == future) {
+				download = null;
+				if (image != null) {
+					minecraft.openScreen(ImageScreen.create(this, future, true));
+				} else {
+					failed = true;
+				}
+			}
+		}));
+	}
+
+	@Override
+	public void removed() {
+		if (download != null) {
+			download.cancel(false);
+			download = null;
+		}
+	}
+
 	@Override
 	protected void keyPressed(char character, int code) {
 		super.keyPressed(character, code);
@@ -22,13 +22,18 @@
 
 package io.github.axolotlclient.modules.screenshotUtils;
 
+import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
+import javax.imageio.ImageIO;
 
 import com.mojang.blaze3d.platform.GlStateManager;
 import com.mojang.blaze3d.vertex.BufferBuilder;
@@ -39,6 +44,7 @@
 import io.github.axolotlclient.api.requests.FriendRequest;
 import io.github.axolotlclient.api.requests.UserRequest;
 import io.github.axolotlclient.modules.hud.util.DrawUtil;
+import io.github.axolotlclient.util.ThreadExecuter;
 import io.github.axolotlclient.util.Util;
 import io.github.axolotlclient.util.Watcher;
 import net.fabricmc.loader.api.FabricLoader;
@@ -47,54 +53,65 @@
 import net.minecraft.client.gui.widget.ButtonWidget;
 import net.minecraft.client.gui.widget.EntryListWidget;
 import net.minecraft.client.render.TextRenderer;
+import net.minecraft.client.render.texture.DynamicTexture;
 import net.minecraft.client.resource.language.I18n;
+import net.minecraft.resource.Identifier;
 import net.minecraft.util.math.MathHelper;
 import org.lwjgl.opengl.GL11;
 
 public class GalleryScreen extends Screen {
 
 	public static final Path SCREENSHOTS_DIR = FabricLoader.getInstance().getGameDir().resolve("screenshots");
+	private static final ThumbnailCache THUMBNAILS = new ThumbnailCache(SCREENSHOTS_DIR.resolveSibling(".screenshot_thumbnails"));
+	private static final GalleryIndex INDEX = new GalleryIndex(SCREENSHOTS_DIR, SCREENSHOTS_DIR.resolveSibling(".screenshot_thumbnails").resolve("index.json"), THUMBNAILS);
+	private static final SharedThumbnailCache SHARED_THUMBNAILS = new SharedThumbnailCache(SCREENSHOTS_DIR.resolveSibling(".shared_thumbnails"));
+
+	/**
+	 * @param loader loads the preview shown in the grid
+	 * @param viewer loads the full size image opened in the {@link ImageScreen}
+	 */
+	private record Tab<T>(String title, Supplier<CompletableFuture<List<T>>> list, Loader<T, Preview> loader, Loader<T, ImageInstance> viewer) {
+
+		private static final Tab<GalleryIndex.Entry> LOCAL = new Tab<>(I18n.translate("gallery.title.local"), () -> load(INDEX::entries),
+			e -> THUMBNAILS.get(SCREENSHOTS_DIR.resolve(e.filename()), e.hash()).thenCompose(thumbnail -> load(() -> Preview.read(e.filename(), thumbnail))),
+			e -> load(() -> new ImageInstance.LocalImpl(SCREENSHOTS_DIR.resolve(e.filename()))));
+
+		private static final Tab<String> SHARED = new Tab<>(I18n.translate("gallery.title.shared"), () ->
+			FriendRequest.getInstance().getFriendUuids().thenCompose(uuids -> {
+				List<CompletableFuture<Optional<List<String>>>> uploads = uuids.stream().map(UserRequest::getUploadedImages).toList();
+				return CompletableFuture.allOf(uploads.toArray(CompletableFuture[]::new))
+					.thenApply(v -> uploads.stream().map(CompletableFuture::join)
+						.flatMap(Optional::stream)
+						.flatMap(List::stream)
+						.toList());
+			}), url -> SHARED_THUMBNAILS.get(url, ImageShare.getInstance()::download)
+				.thenCompose(thumbnail -> load(() -> Preview.read(thumbnail.name(), thumbnail.file()))),
+			url -> ImageShare.getInstance().downloadImage(url));
+
+		private static <R> CompletableFuture<R> load(Callable<R> loader) {
+			try {
+				return CompletableFuture.supplyAsync(() -> {
+					try {
+						return loader.call();
+					} catch (Exception e) {
+						throw new CompletionException(e);
+					}
+				}, ThreadExecuter.images());
+			} catch (RejectedExecutionException e) {
+				return CompletableFuture.failedFuture(e);
+			}
+		}
 
-	private record Tab<T>(String title, Callable<List<T>> list, Map<T, ImageInstance> loadingCache,
-						  Loader<T> loader) {
-
-		private static <T> Tab<T> of(String title, Callable<List<T>> list, Loader<T> loader) {
-			var cache = new HashMap<T, ImageInstance>();
-			return new Tab<>(title, list, cache, o -> {
-				if (cache.containsKey(o)) {
-					return cache.get(o);
-				}
-				var val = loader.load(o);
-				cache.put(o, val);
-				return val;
-			});
+		interface Loader<T, R> {
+			CompletableFuture<R> load(T obj);
 		}
+	}
 
-		private static final Tab<Path> LOCAL = of(I18n.translate("gallery.title.local"), () -> {
-			try (Stream<Path> screenshots = Files.list(SCREENSHOTS_DIR)) {
-				return screenshots.sorted(Comparator.<Path>comparingLong(p -> {
-					try {
-						return Files.getLastModifiedTime(p).toMillis();
-					} catch (IOException e) {
-						return 0L;
-					}
-				}).reversed()).toList();
+	private record Preview(String filename, BufferedImage image) {
+		private static Preview read(String filename, Path thumbnail) throws IOException {
+			try (var in = Files.newInputStream(thumbnail)) {
+				return new Preview(filename, ImageIO.read(in));
 			}
-		}, ImageInstance.LocalImpl::new);
-
-		private static final Tab<String> SHARED = of(I18n.translate("gallery.title.shared"), () ->
-			FriendRequest.getInstance().getFriendUuids()
-				.thenApply(res -> res.stream().map(UserRequest::getUploadedImages)
-					.map(CompletableFuture::join)
-					.filter(Optional::isPresent)
-					.map(Optional::get)
-					.reduce(new ArrayList<>(), (l1, l2) -> {
-						l1.addAll(l2);
-						return l1;
-					})).join(), url -> ImageShare.getInstance().downloadImage(url).join());
-
-		interface Loader<T> {
-			ImageInstance load(T obj) throws Exception;
 		}
 	}
 
@@ -102,6 +119,8 @@ private static <T> Tab<T> of(String title, Callable<List<T>> list, Loader<T> loa
 
 	private final Screen parent;
 	private final Watcher watcher;
+	private final TextureResidency<ImageEntry, TextureSlot> residency = new TextureResidency<>(
+		() -> ScreenshotUtils.getInstance().getGalleryTextureBudget().get() * 1024L * 1024L, TextureSlot::new, TextureSlot::destroy);
 	private final String title;
 
 	public GalleryScreen(Screen parent) {
@@ -109,9 +128,10 @@ public GalleryScreen(Screen parent) {
 		title = I18n.translate("gallery.title");
 		this.parent = parent;
 		this.current = Tab.LOCAL;
-		this.watcher = Watcher.createSelfTicking(SCREENSHOTS_DIR, () -> {
-			if (current == Tab.LOCAL) {
-				init(minecraft, width, height);
+		this.watcher = Watcher.watch(SCREENSHOTS_DIR, changes -> {
+			GalleryIndex.Changes update = INDEX.update(changes);
+			if (!update.isEmpty()) {
+				Minecraft.getInstance().submit(() -> applyChanges(update));
 			}
 		});
 	}
@@ -126,8 +146,10 @@ public GalleryScreen(Screen parent) {
 
 	@Override
 	public void render(int mouseX, int mouseY, float delta) {
+		residency.nextFrame();
 		renderBackground();
 		area.render(mouseX, mouseY, delta);
+		area.prefetch();
 		super.render(mouseX, mouseY, delta);
 
 		if (online) {
@@ -166,16 +188,14 @@ public void init() {
 
 		int columnCount = (width - (marginLeftRight * 2) + entrySpacing - 13) / (entryWidth + entrySpacing); // -13 to always have enough space for the scrollbar
 
+		residency.releaseAll();
 		area = new ImageList(minecraft, width, height, 33, height - 40, entryHeight + entrySpacing, columnCount);
 
 
-		CompletableFuture.runAsync(() -> {
-			try {
-				loadTab(current, columnCount, area);
-			} catch (Exception e) {
-				isError = true;
-				buttons.add(new ButtonWidget(0, width / 2 - 75, 36 + textRenderer.fontHeight + 8, 150, 20, I18n.translate("gallery.reload")));
-			}
+		loadTab(current, columnCount, area).exceptionally(t -> {
+			isError = true;
+			buttons.add(new ButtonWidget(0, width / 2 - 75, 36 + textRenderer.fontHeight + 8, 150, 20, I18n.translate("gallery.reload")));
+			return null;
 		});
 
 		int buttonWidth = columnCount <= 5 && online ? 100 : 150;
@@ -204,19 +224,9 @@ protected void buttonClicked(ButtonWidget buttonWidget) {
 			case 2 -> setTab(Tab.SHARED);
 			case 3 -> minecraft.openScreen(new DownloadImageScreen(this));
 			case 4 -> {
-				Tab.LOCAL.loadingCache().forEach((path, instance) -> {
-					if (instance != null) {
-						minecraft.getTextureManager().close(instance.id());
-					}
-				});
-				Tab.LOCAL.loadingCache().clear();
-				Tab.SHARED.loadingCache().forEach((s, instance) -> {
-					if (instance != null) {
-						minecraft.getTextureManager().close(instance.id());
-					}
-				});
-				Tab.SHARED.loadingCache().clear();
+				residency.close();
 				Watcher.close(watcher);
+				INDEX.invalidate();
 				minecraft.openScreen(parent);
 			}
 		}
@@ -227,20 +237,38 @@ private void setTab(Tab<?> tab) {
 		init(minecraft, width, height);
 	}
 
-	private <T> void loadTab(Tab<T> tab, int columnCount, ImageList area) throws Exception {
-		List<T> images = tab.list.call();
-		int size = images.size();
-		for (int i = 0; i < size; i += columnCount) {
-			ImageListEntry row = new ImageListEntry(columnCount, area);
-			area.addEntry(row);
-			for (int x = 0; x < columnCount; x++) {
-				if (i + x >= size) {
-					break;
+	private <T> CompletableFuture<Void> loadTab(Tab<T> tab, int columnCount, ImageList area) {
+		return tab.list.get().thenAccept(images -> {
+			int size = images.size();
+			for (int i = 0; i < size; i += columnCount) {
+				ImageListEntry row = new ImageListEntry(columnCount, area);
+				area.addEntry(row);
+				for (int x = 0; x < columnCount; x++) {
+					if (i + x >= size) {
+						break;
+					}
+					row.add(createEntry(tab, images.get(i + x)));
 				}
-				T p = images.get(i + x);
-				var entry = new ImageEntry(entryWidth, entryHeight, () -> tab.loader.load(p), row);
-				row.add(entry);
 			}
+		});
+	}
+
+	private <T> ImageEntry createEntry(Tab<T> tab, T source) {
+		return new ImageEntry(entryWidth, entryHeight, source, () -> tab.loader.load(source), () -> tab.viewer.load(source));
+	}
+
+	/**
+	 * Updates the tiles of the local tab for the screenshots that changed, without touching the other ones.
+	 */
+	private void applyChanges(GalleryIndex.Changes changes) {
+		if (current != Tab.LOCAL || area == null) {
+			return;
+		}
+		changes.removed().forEach(entry -> area.remove(entry).ifPresent(residency::release));
+		for (GalleryIndex.Entry entry : changes.added()) {
+			// tiles are sorted newest first
+			int position = (int) area.tiles().filter(tile -> tile.source instanceof GalleryIndex.Entry e && e.modified() > entry.modified()).count();
+			area.insert(position, createEntry(Tab.LOCAL, entry));
 		}
 	}
 
@@ -251,47 +279,61 @@ private class ImageEntry extends ButtonWidget {
 		private static final int accent = Colors.GRAY.withBrightness(0.5f).withAlpha(128).toInt();
 
 		private final TextRenderer font;
-		private final Callable<ImageInstance> instanceSupplier;
-		private final ImageListEntry row;
+		private final Supplier<CompletableFuture<Preview>> previewSupplier;
+		private final Supplier<CompletableFuture<ImageInstance>> viewerSupplier;
+		private final Object source;
+		private ImageListEntry row;
 		private long loadStart;
-		private CompletableFuture<ImageInstance> future;
+		private boolean loading;
 
-		protected ImageEntry(int width, int height, Callable<ImageInstance> instanceSupplier, ImageListEntry row) {
+		protected ImageEntry(int width, int height, Object source, Supplier<CompletableFuture<Preview>> previewSupplier,
+							 Supplier<CompletableFuture<ImageInstance>> viewerSupplier) {
 			super(99, 0, 0, width, height, "");
-			this.instanceSupplier = instanceSupplier;
-			this.row = row;
+			this.previewSupplier = previewSupplier;
+			this.viewerSupplier = viewerSupplier;
+			this.source = source;
 			this.font = Minecraft.getInstance().textRenderer;
 		}
 
-		private CompletableFuture<ImageInstance> load() {
-			if (future == null) {
+		private TextureSlot slot() {
+			TextureSlot slot = residency.get(this);
+			if (slot == null && !loading) {
+				loading = true;
 				loadStart = Minecraft.getTime();
-				future = CompletableFuture.supplyAsync(() -> {
-					try {
-						var instance = instanceSupplier.call();
-						message = instance.filename();
-						return instance;
-					} catch (Exception e) {
+				previewSupplier.get().whenComplete((preview, throwable) -> minecraft.submit(() -> {
+					loading = false;
+					if (throwable != null) {
 						row.remove(this);
-						return null;
+						return;
 					}
-				});
+					message = preview.filename();
+					TextureSlot target = residency.acquire(this);
+					if (target != null) {
+						target.upload(preview.image());
+					}
+				}));
 			}
-			return future;
+			return slot;
+		}
+
+		private void prefetch() {
+			slot();
 		}
 
 		public void onPress() {
-			minecraft.openScreen(ImageScreen.create(GalleryScreen.this, load(), false));
+			minecraft.openScreen(ImageScreen.create(GalleryScreen.this, viewerSupplier.get().exceptionally(t -> null), true));
 			playClickSound(minecraft.getSoundManager());
 		}
 
 		@Override
 		public void render(Minecraft client, int mouseX, int mouseY) {
 			this.hovered = mouseX >= this.x && mouseY >= this.y && mouseX < this.x + this.width && mouseY < this.y + this.height;
-			if (load().isDone() && client.getTextureManager().get(load().join().id()) != null) {
-				client.getTextureManager().bind(load().join().id());
+			TextureSlot slot = slot();
+			if (slot != null) {
+				int height = getHeight() - font.fontHeight - 2;
+				client.getTextureManager().bind(slot.id);
 				GlStateManager.color3f(1, 1, 1);
-				drawTexture(x, y, 0, 0, getWidth(), getHeight() - font.fontHeight - 2, getWidth(), getHeight() - font.fontHeight - 2);
+				drawTexture(x, y, 0, 0, getWidth(), height, slot.scaleWidth(getWidth()), slot.scaleHeight(height));
 				drawScrollingText(font, 2, -1);
 			} else {
 				float delta = (float) easeInOutCubic((Minecraft.getTime() - loadStart) % 1000f / 1000f);
@@ -364,6 +406,7 @@ public ImageListEntry(int size, ImageList list) {
 
 		@Override
 		public void render(int index, int left, int top, int width, int height, int mouseX, int mouseY, boolean hovered) {
+			list.markVisible(index);
 			if (Math.max(left, list.getRowLeft()) <= Math.min(left + width, list.getRowLeft() + list.getWidth()) - 1 &&
 				Math.max(top - height, list.getY()) <= Math.min(top + height * 2, list.getY() + list.viewHeight()) - 1) {
 				buttons.forEach(e -> {
@@ -379,7 +422,19 @@ public void render(int index, int left, int top, int width, int height, int mous
 
 		public void add(ImageEntry e) {
 			buttons.add(e);
+			e.row = this;
+			repositionButtons();
+		}
+
+		/**
+		 * @return the last tile of this row if it no longer fits
+		 */
+		private ImageEntry insert(int index, ImageEntry e) {
+			buttons.add(index, e);
+			e.row = this;
+			ImageEntry overflow = buttons.size() > size ? buttons.remove(buttons.size() - 1) : null;
 			repositionButtons();
+			return overflow;
 		}
 
 		public void remove(ImageEntry e) {
@@ -400,6 +455,10 @@ private void repositionButtons() {
 			}
 		}
 
+		private void prefetch() {
+			buttons.forEach(ImageEntry::prefetch);
+		}
+
 		public ImageEntry pop() {
 			var entry = buttons.remove(0);
 			if (buttons.isEmpty()) {
@@ -432,17 +491,67 @@ public void mouseReleased(int i, int j, int k, int l, int m, int n) {
 	private static class ImageList extends EntryListWidget {
 
 		private final int rowWidth;
+		private final int columns;
 		private final List<ImageListEntry> entries = new ArrayList<>();
+		private int firstVisible = Integer.MAX_VALUE, lastVisible = -1;
 
 		public ImageList(Minecraft minecraft, int screenWidth, int screenHeight, int top, int bottom, int entryHeight, int columns) {
 			super(minecraft, screenWidth, screenHeight, top, bottom, entryHeight);
 			this.rowWidth = columns * (entryWidth + entrySpacing) - entrySpacing;
+			this.columns = columns;
 		}
 
 		public void addEntry(ImageListEntry entry) {
 			entries.add(entry);
 		}
 
+		private Stream<ImageEntry> tiles() {
+			return entries.stream().flatMap(row -> row.buttons.stream());
+		}
+
+		private Optional<ImageEntry> remove(Object source) {
+			Optional<ImageEntry> tile = tiles().filter(e -> e.source.equals(source)).findFirst();
+			tile.ifPresent(e -> e.row.remove(e));
+			return tile;
+		}
+
+		/**
+		 * Inserts a tile at the given position, moving all following tiles one place further.
+		 */
+		private void insert(int position, ImageEntry entry) {
+			List<ImageListEntry> rows = entries;
+			int index = position % columns;
+			ImageEntry carry = entry;
+			for (int row = position / columns; carry != null; row++) {
+				if (row == rows.size()) {
+					addEntry(new ImageListEntry(columns, this));
+				}
+				carry = rows.get(row).insert(index, carry);
+				index = 0;
+			}
+		}
+
+		private void markVisible(int index) {
+			firstVisible = Math.min(firstVisible, index);
+			lastVisible = Math.max(lastVisible, index);
+		}
+
+		/**
+		 * Loads the rows around the ones that were rendered in this frame, so they are ready once they are scrolled into view.
+		 */
+		private void prefetch() {
+			List<ImageListEntry> rows = entries;
+			int from = Math.max(0, firstVisible - TextureResidency.WINDOW_ROWS);
+			int to = Math.min(rows.size() - 1, lastVisible + TextureResidency.WINDOW_ROWS);
+			for (int i = from; i <= to; i++) {
+				if (i < firstVisible || i > lastVisible) {
+					rows.get(i).prefetch();
+				}
+			}
+			firstVisible = Integer.MAX_VALUE;
+			lastVisible = -1;
+		}
+
 		@Override
 		public int getRowWidth() {
 			return rowWidth;
@@ -497,4 +606,41 @@ public Entry getEntry(int i) {
 			return entries.get(i);
 		}
 	}
+
+	/**
+	 * A texture of the size of the largest possible thumbnail, see {@link TextureResidency}.
+	 */
+	private static class TextureSlot {
+		private static int count;
+
+		private final Identifier id = new Identifier("axolotlclient", "gallery_slot_" + count++);
+		private final DynamicTexture texture = new DynamicTexture(ThumbnailCache.MAX_WIDTH, ThumbnailCache.MAX_HEIGHT);
+		private int width, height;
+
+		private TextureSlot() {
+			Minecraft.getInstance().getTextureManager().register(id, texture);
+		}
+
+		private void upload(BufferedImage image) {
+			width = image.getWidth();
+			height = image.getHeight();
+			image.getRGB(0, 0, width, height, texture.getPixels(), 0, ThumbnailCache.MAX_WIDTH);
+			texture.upload();
+		}
+
+		/**
+		 * @return the texture width to pass when drawing, so that only the part holding the image gets stretched to the given width
+		 */
+		private int scaleWidth(int width) {
+			return width * ThumbnailCache.MAX_WIDTH / Math.max(1, this.width);
+		}
+
+		private int scaleHeight(int height) {
+			return height * ThumbnailCache.MAX_HEIGHT / Math.max(1, this.height);
+		}
+
+		private void destroy() {
+			Minecraft.getInstance().getTextureManager().close(id);
+		}
+	}
 }
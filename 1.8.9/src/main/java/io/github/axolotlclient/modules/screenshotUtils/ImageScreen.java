@@ -88,7 +88,7 @@ public void render(int mouseX, int mouseY, float delta) {
 			ImageInstance.Remote r = (ImageInstance.Remote) image;
 			drawCenteredString(textRenderer, title, width / 2, 38 / 2 - textRenderer.fontHeight - 2, -1);
 			drawCenteredString(textRenderer,
-				I18n.translate("gallery.image.upload_details", UUIDHelper.getUsername(r.uploader()),
+				I18n.translate("gallery.image.upload_details", UUIDHelper.getCachedUsername(r.uploader()),
 					r.sharedAt().atZone(ZoneId.systemDefault()).format(AxolotlClientCommon.getInstance().formatter)),
 				width / 2, 38 / 2 + 2, -1);
 		} else {
@@ -35,6 +35,7 @@
 import io.github.axolotlclient.AxolotlClient;
 import io.github.axolotlclient.AxolotlClientConfig.api.options.OptionCategory;
 import io.github.axolotlclient.AxolotlClientConfig.impl.options.BooleanOption;
+import io.github.axolotlclient.AxolotlClientConfig.impl.options.IntegerOption;
 import io.github.axolotlclient.AxolotlClientConfig.impl.options.StringArrayOption;
 import io.github.axolotlclient.api.API;
 import io.github.axolotlclient.modules.AbstractModule;
@@ -61,6 +62,8 @@ public class ScreenshotUtils extends AbstractModule {
 	private final Map<BooleanSupplier, Action> actions = new LinkedHashMap<>();
 
 	private StringArrayOption autoExec;
+	@Getter
+	private final IntegerOption galleryTextureBudget = new IntegerOption("galleryTextureBudget", 64, 16, 1024);
 
 	@Override
 	public void init() {
@@ -107,7 +110,7 @@ public void init() {
 
 		}), "off");
 
-		category.add(enabled, autoExec, openViewer);
+		category.add(enabled, autoExec, galleryTextureBudget, openViewer);
 
 		AxolotlClient.CONFIG.general.add(category);
 	}
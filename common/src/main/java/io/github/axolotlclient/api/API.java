@@ -22,6 +22,10 @@
 
 package io.github.axolotlclient.api;
 
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.net.ConnectException;
 import java.net.URI;
 import java.net.http.*;
@@ -58,19 +62,25 @@ public class API {
 	private final StatusUpdateProvider statusUpdateProvider;
 	@Getter
 	private final Options apiOptions;
-	private final Collection<SocketMessageHandler> handlers;
+	@Getter
+	private final SocketRouter socketRouter;
 	private WebSocket socket;
 	@Getter
+	private ClientEndpoint endpoint;
+	@Getter
 	private User self;
 	private Account account;
 	private String token;
 	@Getter
 	@Setter
 	private AccountSettings settings;
-	private HttpClient client;
+	private final HttpClient client = NetworkUtil.getHttpClient("API");
+	@Getter
+	private final RequestDispatcher dispatcher;
 	private CompletableFuture<?> restartingFuture;
+	private final Backoff reconnectBackoff = new Backoff(TimeUnit.SECONDS.toMillis(Constants.RECONNECT_BASE_DELAY),
+		TimeUnit.SECONDS.toMillis(Constants.RECONNECT_MAX_DELAY));
 	private Future<?> statusUpdateFuture;
-	private final ScheduledExecutorService statusUpdateExecutor;
 	private static final List<BiContainer<Runnable, ListenerType>> afterStartupListeners = new ArrayList<>();
 
 	public API(Logger logger, TranslationProvider translationProvider,
@@ -83,14 +93,15 @@ public API(Logger logger, TranslationProvider translationProvider,
 		this.translationProvider = translationProvider;
 		this.statusUpdateProvider = statusUpdateProvider;
 		this.apiOptions = apiOptions;
-		handlers = new HashSet<>();
-		handlers.add(ChatHandler.getInstance());
-		handlers.add(new FriendRequestHandler());
-		handlers.add(new FriendRequestReactionHandler());
-		handlers.add(new StatusUpdateHandler());
-		handlers.add(new ChannelInviteHandler());
+		socketRouter = new SocketRouter(List.of(
+			ChatHandler.getInstance(),
+			new FriendRequestHandler(),
+			new FriendRequestReactionHandler(),
+			new StatusUpdateHandler(),
+			new ChannelInviteHandler()
+		));
+		dispatcher = new RequestDispatcher();
 		Instance = this;
-		statusUpdateExecutor = Executors.newSingleThreadScheduledExecutor();
 		Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown));
 	}
 
@@ -106,35 +117,59 @@ public enum ListenerType {
 		ONCE, REPEATING
 	}
 
+	public interface BodyReader<T> {
+		/**
+		 * @param length the length of the body in bytes, or -1 if the server did not send it
+		 */
+		T read(InputStream body, long length) throws IOException;
+
+		/**
+		 * Releases a result that was read completely, but can't be delivered because the request was cancelled meanwhile.
+		 */
+		default void discard(T result) {
+		}
+	}
+
 	public void onOpen(WebSocket channel) {
 		logger.debug("API connected!");
+		reconnectBackoff.reset();
 		afterStartupListeners.forEach(p -> p.getLeft().run());
 		afterStartupListeners.removeIf(p -> p.getRight() == ListenerType.ONCE);
 		this.socket = channel;
+		ChatHandler.getInstance().catchUp();
 	}
 
 	private void authenticate() {
-		//if (client != null) {
-		// We have to rely on the gc to collect previous client objects as close() was only implemented in java 21.
-		// However, we are currently compiling against java 17.
-		//client.close();
-		//}
-
-		try {
-			if (!GlobalDataRequest.get(true).get(1, TimeUnit.MINUTES).success()) {
+		long start = System.nanoTime();
+		GlobalDataRequest.get(true).orTimeout(1, TimeUnit.MINUTES).whenComplete((data, throwable) -> {
+			logStartup("Global data check", start);
+			if (throwable != null) {
+				logger.warn("Not trying to start API as it couldn't be reached within the timeout of 1 minute!");
+				scheduleRestart();
+			} else if (!data.success()) {
 				logger.warn("Not trying to start API as it couldn't be reached!");
-				scheduleRestart(false);
-				return;
+				scheduleRestart();
+			} else {
+				// the Mojang join blocks on its request, which should not happen on whichever thread completed the check
+				CompletableFuture.runAsync(() -> authenticate(start), ThreadExecuter.network()).exceptionally(t -> {
+					logger.warn("Failed to start API authentication!", t);
+					scheduleRestart();
+					return null;
+				});
 			}
-		} catch (InterruptedException | ExecutionException | TimeoutException e) {
-			logger.warn("Not trying to start API as it couldn't be reached within the timeout of 1 minute!");
-			scheduleRestart(false);
-			return;
-		}
+		});
+	}
 
+	private void authenticate(long start) {
+		// Only contact Mojang and PluralKit once our backend is known to be up, so an outage doesn't make every retry hit them.
+		// PluralKit does not depend on our backend, so it runs alongside the authentication
+		CompletableFuture<PkSystem> pkSystem = PkSystem.fromToken(apiOptions.pkToken.get()).exceptionally(t -> {
+			logger.warn("Failed to load PluralKit system!", t);
+			return null;
+		});
 		logDetailed("Authenticating with Mojang...");
-
 		MojangAuth.Result result = MojangAuth.authenticate(account);
+		logStartup("Mojang authentication", start);
 
 		if (result.getStatus() != MojangAuth.Status.SUCCESS) {
 			logger.error("Failed to authenticate with Mojang! Status: ", result.getStatus());
@@ -158,10 +193,10 @@ private void authenticate() {
 			}
 
 			token = response.getBody("access_token");
-			logDetailed("Obtained token!");
+			logStartup("Obtained token", start);
 			CompletableFuture.allOf(get(Request.Route.ACCOUNT.builder().build())
 					.thenAccept(r -> {
-						self = new User(sanitizeUUID(r.getBody("uuid")),
+						User user = new User(sanitizeUUID(r.getBody("uuid")),
 							r.getBody("username"), Relation.NONE,
 							r.getBody("registered", TimestampParser::parse),
 							Status.UNKNOWN,
@@ -170,7 +205,12 @@ private void authenticate() {
 								return previous.stream().map(m -> new User.OldUsername((String) m.get("username"), (boolean) m.get("public")))
 									.collect(Collectors.toList());
 							}));
-						self.setSystem(PkSystem.fromToken(apiOptions.pkToken.get()).join());
+						self = user;
+						// the system is attached whenever PluralKit answers, the socket does not wait for it
+						pkSystem.thenAccept(system -> {
+							user.setSystem(system);
+							logStartup("PluralKit system loaded", start);
+						});
 						logDetailed("Created self user!");
 					}),
 				AccountSettingsRequest.get().thenAccept(r -> {
@@ -179,12 +219,24 @@ private void authenticate() {
 					apiOptions.showLastOnline.set(r.showLastOnline());
 					apiOptions.showRegistered.set(r.showRegistered());
 					apiOptions.allowFriendsImageAccess.set(r.allowFriendsImageAccess());
-				})).thenRun(() -> logDetailed("completed data requests")).join();
-			createSession();
-			startStatusUpdateThread();
+				})).thenCompose(v -> {
+					logStartup("Completed data requests", start);
+					return createSession();
+				}).thenAccept(connected -> {
+					if (!connected) {
+						scheduleReconnect();
+					} else {
+						logStartup("Socket connected", start);
+					}
+					startStatusUpdateThread();
+				});
 		});
 	}
 
+	private void logStartup(String step, long start) {
+		logDetailed("[Startup] {} after {} ms", step, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+	}
+
 	public CompletableFuture<Response> get(Request request) {
 		return request(request, "GET");
 	}
@@ -213,61 +265,151 @@ private CompletableFuture<Response> request(Request request, String method) {
 			return CompletableFuture.completedFuture(Response.CLIENT_ERROR);
 		}
 		URI route = getUrl(request);
-		return request(route, request.bodyFields(), request.rawBody(), method, request.headers());
+		return dispatcher.dispatch(request, method, () -> request(route, request.bodyFields(), request.rawBody(), method, request.headers()));
 	}
 
-	private CompletableFuture<Response> request(URI url, Map<String, ?> payload, byte[] rawBody, String method, Map<String, String> headers) {
-		return CompletableFuture.supplyAsync(() -> {
-			try {
-				logDetailed("Starting request to " + method + " " + url);
-
-				HttpRequest.Builder builder = HttpRequest.newBuilder(url)
-					.header("Content-Type", "application/json")
-					.header("Accept", "application/json");
+	/**
+	 * Sends a GET request and hands the response body to the given reader while it is still being received,
+	 * instead of buffering it as a string first. Meant for large responses, so these requests are never coalesced.
+	 * They count against the concurrency limit of their route until the reader is done.
+	 * Cancelling the returned future aborts the request, a reader that is still running fails on its next read.
+	 *
+	 * @return a future completing with the result of the reader, or failing if the request could not be sent or the server responded with an error
+	 */
+	public <T> CompletableFuture<T> getStreaming(Request request, BodyReader<T> reader) {
+		if (!getApiOptions().enabled.get() || !getApiOptions().privacyAccepted.get().isAccepted()) {
+			return CompletableFuture.failedFuture(new IllegalStateException("API integration is not enabled"));
+		}
+		if (request.requiresAuthentication() && !isAuthenticated()) {
+			logger.debug("Tried to request GET {} without authentication, but this request requires it!", request);
+			return CompletableFuture.failedFuture(new IllegalStateException("Request requires authentication"));
+		}
+		URI url = getUrl(request);
+		CompletableFuture<T> result = new CompletableFuture<>();
+		dispatcher.enqueue(request.route(), () -> {
+			// cancelled while it was queued
+			if (!result.isDone()) {
+				stream(url, request.headers(), reader, result);
+			}
+			return result;
+		}).exceptionally(t -> {
+			// the network executor rejected starting it
+			result.completeExceptionally(t);
+			return null;
+		});
+		return result;
+	}
 
-				if (token != null) {
-					builder.header("Authorization", token);
+	private <T> void stream(URI url, Map<String, String> headers, BodyReader<T> reader, CompletableFuture<T> result) {
+		logDetailed("Starting streaming request to GET " + url);
+		HttpRequest httpRequest = newRequest(url, headers).GET().build();
+		CompletableFuture<HttpResponse<InputStream>> sent = client.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofInputStream());
+		result.whenComplete((value, throwable) -> {
+			if (result.isCancelled()) {
+				sent.cancel(true);
+			}
+		});
+		sent.whenCompleteAsync((response, throwable) -> {
+			if (throwable != null) {
+				result.completeExceptionally(throwable);
+				return;
+			}
+			try (InputStream body = new FilterInputStream(response.body()) {
+				@Override
+				public int read() throws IOException {
+					checkCancelled();
+					return super.read();
 				}
 
-				if (headers != null) {
-					headers.forEach(builder::header);
+				@Override
+				public int read(byte[] b, int off, int len) throws IOException {
+					checkCancelled();
+					return super.read(b, off, len);
 				}
 
-				if (rawBody != null) {
-					builder.method(method, HttpRequest.BodyPublishers.ofByteArray(rawBody));
-				} else if (!(payload == null || payload.isEmpty())) {
-					StringBuilder body = new StringBuilder();
-					GsonHelper.GSON.toJson(payload, body);
-					logDetailed("Sending payload: \n" + body);
-					builder.method(method, HttpRequest.BodyPublishers.ofString(body.toString()));
-				} else {
-					builder.method(method, HttpRequest.BodyPublishers.noBody());
+				private void checkCancelled() throws IOException {
+					if (result.isCancelled()) {
+						throw new InterruptedIOException("Request to " + url + " was cancelled");
+					}
 				}
-				if (client == null) {
-					client = NetworkUtil.createHttpClient("API");
+			}) {
+				int code = response.statusCode();
+				logDetailed("Response: code: " + code + " (streamed)");
+				if (code < 200 || code >= 300) {
+					throw new IOException("Server responded with status " + code);
 				}
+				T value = reader.read(body, response.headers().firstValueAsLong("Content-Length").orElse(-1));
+				if (!result.complete(value)) {
+					reader.discard(value);
+				}
+			} catch (IOException | RuntimeException e) {
+				result.completeExceptionally(e);
+			}
+		}, ThreadExecuter.network()).exceptionally(t -> {
+			// for example if the executor rejected reading the response
+			result.completeExceptionally(t);
+			return null;
+		});
+	}
 
-				HttpResponse<String> response = client.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+	private HttpRequest.Builder newRequest(URI url, Map<String, String> headers) {
+		HttpRequest.Builder builder = HttpRequest.newBuilder(url)
+			.header("Content-Type", "application/json")
+			.header("Accept", "application/json");
 
-				String body = response.body();
+		if (token != null) {
+			builder.header("Authorization", token);
+		}
 
-				int code = response.statusCode();
-				if (apiOptions.detailedLogging.get()) {
-					if (!url.getPath().endsWith(Request.Route.AUTHENTICATE.getPath())) {
-						logDetailed("Response: code: " + code + " body: " + body);
-					} else {
-						logDetailed("Response: code: " + code + " body: " + String.valueOf(body).replaceAll("(\"access_token\": ?\")[^\"]+(\")", "$1[token redacted]$2"));
-					}
+		if (headers != null) {
+			headers.forEach(builder::header);
+		}
+		return builder;
+	}
+
+	private CompletableFuture<Response> request(URI url, Map<String, ?> payload, HttpRequest.BodyPublisher rawBody, String method, Map<String, String> headers) {
+		HttpRequest.Builder builder;
+		try {
+			logDetailed("Starting request to " + method + " " + url);
+
+			builder = newRequest(url, headers);
+
+			if (rawBody != null) {
+				builder.method(method, rawBody);
+			} else if (!(payload == null || payload.isEmpty())) {
+				StringBuilder body = new StringBuilder();
+				GsonHelper.GSON.toJson(payload, body);
+				logDetailed("Sending payload: \n" + body);
+				builder.method(method, HttpRequest.BodyPublishers.ofString(body.toString()));
+			} else {
+				builder.method(method, HttpRequest.BodyPublishers.noBody());
+			}
+		} catch (Exception e) {
+			onError(e);
+			return CompletableFuture.completedFuture(Response.CLIENT_ERROR);
+		}
+
+		return client.sendAsync(builder.build(), HttpResponse.BodyHandlers.ofString()).thenApply(response -> {
+			String body = response.body();
+
+			int code = response.statusCode();
+			if (apiOptions.detailedLogging.get()) {
+				if (!url.getPath().endsWith(Request.Route.AUTHENTICATE.getPath())) {
+					logDetailed("Response: code: " + code + " body: " + body);
+				} else {
+					logDetailed("Response: code: " + code + " body: " + String.valueOf(body).replaceAll("(\"access_token\": ?\")[^\"]+(\")", "$1[token redacted]$2"));
 				}
-				return Response.builder().body(body).status(code).headers(response.headers().map()).build();
-			} catch (ConnectException | HttpTimeoutException e) {
+			}
+			return Response.builder().body(body).status(code).headers(response.headers().map()).build();
+		}).exceptionally(throwable -> {
+			Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+			if (cause instanceof ConnectException || cause instanceof HttpTimeoutException) {
 				logger.warn("Backend unreachable!");
-				return Response.CLIENT_ERROR;
-			} catch (Exception e) {
-				onError(e);
-				return Response.CLIENT_ERROR;
+			} else {
+				onError(cause);
 			}
-		}, ThreadExecuter.service());
+			return Response.CLIENT_ERROR;
+		});
 	}
 
 	URI getUrl(Request request) {
@@ -305,12 +447,9 @@ public void shutdown() {
 				socket.sendClose(WebSocket.NORMAL_CLOSURE, "Shutdown");
 				socket = null;
 			}
-			// We have to rely on the gc to collect previous client objects as close() was only implemented in java 21.
-			// However, we are currently compiling against java 17.
-			//client.close();
 			token = null;
+			ChannelIndex.getInstance().clear();
 		}
-		client = null;
 	}
 
 	public boolean isSocketConnected() {
@@ -335,19 +474,10 @@ public void logDetailed(String message, Object... args) {
 		}
 	}
 
-	public void onMessage(String message) {
-		logDetailed("Handling socket message: {}", message);
+	public void onMessage(String target, Response response) {
+		logDetailed("Handling socket message: {}", response.getPlainBody());
 
-		Response res = Response.builder().status(200).body(message).build();
-		String target = res.getBody("target");
-		boolean handled = false;
-		for (SocketMessageHandler handler : handlers) {
-			if (handler.isApplicable(target)) {
-				handler.handle(res);
-				handled = true;
-			}
-		}
-		if (!handled) {
+		if (socketRouter.route(target, response) == null) {
 			logger.warn("Unhandled socket message target {}! This may be caused by using an outdated client.", target);
 		}
 	}
@@ -356,42 +486,70 @@ public void onError(Throwable throwable) {
 		logger.error("Error while handling API traffic:", throwable);
 	}
 
-	public void onClose(int statusCode, String reason) {
+	public void onClose(WebSocket closed, int statusCode, String reason) {
 		logDetailed("Session closed! code: " + statusCode + " reason: " + reason);
-		int[] error_codes = new int[]{
-			1011,
-			1007,
-			1014
-		};
-		if (Arrays.stream(error_codes).anyMatch(i -> i == statusCode) && apiOptions.enabled.get()) {
-			scheduleRestart(true);
+		if (closed != socket) {
+			// a socket we already replaced or shut down ourselves
+			return;
 		}
+		socket = null;
+		if (apiOptions.enabled.get() && isAuthenticated()) {
+			scheduleReconnect();
+		}
+	}
+
+	/**
+	 * Reconnects the socket with the token of the current session. Only if that is rejected,
+	 * the whole authentication is run again.
+	 */
+	private void scheduleReconnect() {
+		schedule(() -> (isAuthenticated() ? createSession() : CompletableFuture.completedFuture(false)).thenAccept(connected -> {
+			if (!connected) {
+				logDetailed("Could not resume the previous session, authenticating again");
+				token = null;
+				authenticate();
+			}
+		}));
 	}
 
-	private void scheduleRestart(boolean immediate) {
+	private void scheduleRestart() {
+		schedule(() -> startup(account));
+	}
+
+	private void schedule(Runnable task) {
 		if (restartingFuture != null) {
 			restartingFuture.cancel(true);
 		}
-		logger.info("Trying restart in " + (immediate ? "10 seconds" : "5 minutes."));
+		long delay = reconnectBackoff.next();
+		logger.info("Trying restart in {} seconds (attempt {})", delay / 1000, reconnectBackoff.getAttempts());
 		restartingFuture = CompletableFuture.runAsync(() -> {
 			logDetailed("Restarting API session...");
-			startup(account);
-		}, immediate ? CompletableFuture.delayedExecutor(10, TimeUnit.SECONDS, ThreadExecuter.service()) :
-			CompletableFuture.delayedExecutor(5, TimeUnit.MINUTES, ThreadExecuter.service()));
-	}
-
-	private void createSession() {
-		if (!Constants.TESTING) {
-			try {
-				logDetailed("Connecting to websocket..");
-				URI gateway = Request.Route.GATEWAY.create().resolve();
-				String uri = (gateway.getScheme().endsWith("s") ? "wss" : "ws") + gateway.toString().substring(gateway.getScheme().length());
-				socket = client.newWebSocketBuilder().header("Authorization", token)
-					.buildAsync(URI.create(uri), new ClientEndpoint()).join();
-				logDetailed("Socket connected");
-			} catch (Exception e) {
-				logger.error("Failed to start Socket! ", e);
-			}
+			task.run();
+		}, CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS, ThreadExecuter.service()));
+	}
+
+	private CompletableFuture<Boolean> createSession() {
+		if (Constants.TESTING) {
+			return CompletableFuture.completedFuture(true);
+		}
+		try {
+			logDetailed("Connecting to websocket..");
+			URI gateway = Request.Route.GATEWAY.create().resolve();
+			String uri = (gateway.getScheme().endsWith("s") ? "wss" : "ws") + gateway.toString().substring(gateway.getScheme().length());
+			endpoint = new ClientEndpoint();
+			return client.newWebSocketBuilder().header("Authorization", token)
+				.buildAsync(URI.create(uri), endpoint).handle((webSocket, throwable) -> {
+					if (throwable != null) {
+						logger.error("Failed to start Socket! ", throwable);
+						return false;
+					}
+					socket = webSocket;
+					logDetailed("Socket connected");
+					return true;
+				});
+		} catch (Exception e) {
+			logger.error("Failed to start Socket! ", e);
+			return CompletableFuture.completedFuture(false);
 		}
 	}
 
@@ -452,7 +610,7 @@ private void startStatusUpdateThread() {
 		if (statusUpdateFuture != null) {
 			statusUpdateFuture.cancel(true);
 		}
-		statusUpdateFuture = statusUpdateExecutor.scheduleAtFixedRate(() -> {
+		statusUpdateFuture = ThreadExecuter.scheduler().scheduleAtFixedRate(() -> {
 			Request request = statusUpdateProvider.getStatus();
 			if (request != null) {
 				post(request);
@@ -24,36 +24,169 @@
 
 import java.net.http.WebSocket;
 import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import io.github.axolotlclient.util.ThreadExecuter;
 
-
+/**
+ * Receives the messages of a single socket and hands them to the API one after another, in the order they arrived.
+ * <p>
+ * Once more than {@code highWaterMark} messages are waiting, no further messages are requested from the socket
+ * until the queue has been drained to half of that. Activity updates that have not been handled yet are replaced
+ * by newer ones for the same user instead of queueing both.
+ * Messages are handled on the {@link ThreadExecuter#compute() compute} executor.
+ */
 public class ClientEndpoint implements WebSocket.Listener {
 
 	private final StringBuilder buf = new StringBuilder();
+	private final Deque<Inbound> queue = new ArrayDeque<>();
+	private final Map<String, Inbound> pendingActivities = new HashMap<>();
+	private final int highWaterMark;
+	private WebSocket webSocket;
+	private boolean withheld;
+	private boolean draining;
+	private long coalesced;
+	private long dropped;
+
+	public ClientEndpoint() {
+		this(Constants.SOCKET_INBOUND_HIGH_WATER_MARK);
+	}
+
+	public ClientEndpoint(int highWaterMark) {
+		if (highWaterMark < 1) {
+			throw new IllegalArgumentException("High water mark must be at least 1, got " + highWaterMark);
+		}
+		this.highWaterMark = highWaterMark;
+	}
 
 	@Override
 	public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
-		buf.append(data);
-		if (last) {
-			String s = buf.toString();
-			ThreadExecuter.scheduleTask(() -> API.getInstance().onMessage(s));
+		if (!last) {
+			buf.append(data);
+			webSocket.request(1);
+			return null;
+		}
+		String s;
+		if (buf.isEmpty()) {
+			// the common case of an unfragmented message does not need to go through the buffer
+			s = data.toString();
+		} else {
+			s = buf.append(data).toString();
 			buf.setLength(0);
 		}
-		webSocket.request(1);
-		return WebSocket.Listener.super.onText(webSocket, data, last);
+		if (enqueue(s)) {
+			webSocket.request(1);
+		}
+		return null;
+	}
+
+	private boolean enqueue(String message) {
+		Response response = Response.builder().status(200).body(message).build();
+		String target = response.peek("target");
+		String activityUser = null;
+		if ("activity_update".equals(target)) {
+			// the handler needs the whole body anyway, parsing it here lets the user be read from the parsed tree
+			response.getBody();
+			activityUser = response.peek("user");
+		}
+		boolean credit;
+		boolean startDrain = false;
+		synchronized (this) {
+			Inbound pending = activityUser == null ? null : pendingActivities.get(activityUser);
+			if (pending != null) {
+				pending.response = response;
+				coalesced++;
+			} else if (queue.size() >= highWaterMark * 2) {
+				// only reachable if the socket ignores our demand, in which case memory is more important
+				dropped++;
+			} else {
+				Inbound entry = new Inbound(target, response, activityUser);
+				queue.add(entry);
+				if (activityUser != null) {
+					pendingActivities.put(activityUser, entry);
+				}
+				startDrain = !draining;
+				draining = true;
+			}
+			credit = queue.size() < highWaterMark;
+			withheld = !credit;
+		}
+		if (startDrain) {
+			startDrain();
+		}
+		return credit;
+	}
+
+	private void startDrain() {
+		try {
+			// handling a message mostly means decoding its payload, which is no network work
+			ThreadExecuter.compute().execute(this::drain);
+		} catch (RejectedExecutionException e) {
+			// nothing else would pick up the messages that are already queued, so try again shortly
+			ThreadExecuter.scheduler().schedule(this::startDrain, 50, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	private void drain() {
+		while (true) {
+			String target;
+			Response response;
+			boolean resume = false;
+			synchronized (this) {
+				Inbound next = queue.poll();
+				if (next == null) {
+					draining = false;
+					return;
+				}
+				if (next.activityUser != null) {
+					pendingActivities.remove(next.activityUser, next);
+				}
+				target = next.target;
+				response = next.response;
+				if (withheld && queue.size() <= highWaterMark / 2) {
+					withheld = false;
+					resume = true;
+				}
+			}
+			if (resume && webSocket != null) {
+				webSocket.request(1);
+			}
+			try {
+				API.getInstance().onMessage(target, response);
+			} catch (Throwable t) {
+				API.getInstance().onError(t);
+			}
+		}
+	}
+
+	public synchronized int getQueueDepth() {
+		return queue.size();
+	}
+
+	public synchronized long getCoalesced() {
+		return coalesced;
+	}
+
+	public synchronized long getDropped() {
+		return dropped;
 	}
 
 	@Override
 	public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
 		webSocket.request(1);
-		API.getInstance().onClose(statusCode, reason);
+		API.getInstance().onClose(webSocket, statusCode, reason);
 		return WebSocket.Listener.super.onClose(webSocket, statusCode, reason);
 	}
 
 	@Override
 	public void onOpen(WebSocket webSocket) {
+		this.webSocket = webSocket;
 		webSocket.request(1);
 		API.getInstance().onOpen(webSocket);
 	}
@@ -61,6 +194,8 @@ public void onOpen(WebSocket webSocket) {
 	@Override
 	public void onError(WebSocket webSocket, Throwable error) {
 		API.getInstance().onError(error);
+		// the socket is unusable after an error, 1006 is the code reserved for connections that were lost this way
+		API.getInstance().onClose(webSocket, 1006, String.valueOf(error.getMessage()));
 		WebSocket.Listener.super.onError(webSocket, error);
 	}
 
@@ -69,4 +204,16 @@ public CompletionStage<?> onPing(WebSocket webSocket, ByteBuffer message) {
 		webSocket.request(1);
 		return WebSocket.Listener.super.onPing(webSocket, message);
 	}
+
+	private static class Inbound {
+		private final String target;
+		private final String activityUser;
+		private Response response;
+
+		private Inbound(String target, Response response, String activityUser) {
+			this.target = target;
+			this.response = response;
+			this.activityUser = activityUser;
+		}
+	}
 }
@@ -31,5 +31,10 @@ public class Constants {
 	public final String API_URL = DEVELOPMENT ? "http://localhost:8000" : "https://api.axolotlclient.com/v1/";
 	public final String TERMS = "https://axolotlclient.com/terms";
 	public final int STATUS_UPDATE_DELAY = 15; // The Delay between Status updates, in seconds. Discord uses 15 seconds so we will as well.
+	public final int MAX_CONCURRENT_REQUESTS_PER_ROUTE = 4; // The amount of requests to a single route that may be running at the same time, any further ones are queued.
+	public final boolean BATCH_USER_REQUESTS = false; // Whether to look up several users at once through user?uuids=, which the backend does not serve yet
+	public final int SOCKET_INBOUND_HIGH_WATER_MARK = 256; // The amount of received socket messages that may wait to be handled before no more are requested
+	public final int RECONNECT_BASE_DELAY = 2; // The initial delay before trying to reconnect after losing the connection, in seconds. It doubles with every failed attempt.
+	public final int RECONNECT_MAX_DELAY = 300; // The upper bound of the reconnection delay, in seconds.
 	public final boolean TESTING = false; // When set to true, no requests will be sent
 }
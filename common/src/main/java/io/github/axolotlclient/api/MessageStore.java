@@ -0,0 +1,314 @@
+/*
+ * Copyright © 2026 moehreag <moehreag@gmail.com> & Contributors
+ *
+ * This file is part of AxolotlClient.
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ *
+ * For more information, see the LICENSE file.
+ */
+
+package io.github.axolotlclient.api;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import com.google.gson.JsonObject;
+import io.github.axolotlclient.api.handlers.ChatHandler;
+import io.github.axolotlclient.api.requests.UserRequest;
+import io.github.axolotlclient.api.types.ChatMessage;
+import io.github.axolotlclient.api.types.Persistence;
+import io.github.axolotlclient.api.types.User;
+import io.github.axolotlclient.util.GsonHelper;
+import io.github.axolotlclient.util.ThreadExecuter;
+import lombok.Getter;
+import net.fabricmc.loader.api.FabricLoader;
+
+/**
+ * Keeps the message history of every channel on disk, so opening a channel or scrolling back through it
+ * doesn't download the same messages again.
+ * <p>
+ * Every channel is an append-only log of json lines in the directory of the logged in account.
+ * Messages are indexed by id and timestamp in memory once a channel has been read.
+ * Logs are rewritten once enough of their lines belong to messages dropped by the channel's {@link Persistence}.
+ */
+public class MessageStore {
+
+	public static final int PAGE_SIZE = 50;
+	private static final Comparator<ChatMessage> ORDER = Comparator.comparing(ChatMessage::timestamp)
+		.thenComparing(ChatMessage::id, ChatHandler::compareIds);
+
+	@Getter
+	private static final MessageStore Instance = new MessageStore();
+
+	private final Map<String, CompletableFuture<Log>> logs = new ConcurrentHashMap<>();
+
+	/**
+	 * @return all stored messages of this channel, oldest first
+	 */
+	public CompletableFuture<List<ChatMessage>> getMessages(String channelId) {
+		return getLog(channelId).thenApply(Log::all);
+	}
+
+	/**
+	 * @return up to {@link #PAGE_SIZE} of the newest stored messages sent before the given time, oldest first
+	 */
+	public CompletableFuture<List<ChatMessage>> getMessagesBefore(String channelId, Instant before) {
+		return getLog(channelId).thenApply(log -> log.before(before));
+	}
+
+	/**
+	 * @return the id of the newest stored message of this channel
+	 */
+	public CompletableFuture<Optional<String>> getLastId(String channelId) {
+		return getLog(channelId).thenApply(log -> Optional.ofNullable(log.lastId()));
+	}
+
+	public void add(ChatMessage message) {
+		addAll(message.channelId(), List.of(message));
+	}
+
+	public void addAll(String channelId, Collection<ChatMessage> messages) {
+		if (!messages.isEmpty()) {
+			getLog(channelId).thenAccept(log -> log.addAll(messages));
+		}
+	}
+
+	/**
+	 * Drops the stored messages of this channel and replaces them with the given ones.
+	 * Used when the stored history can't be connected to the current messages anymore.
+	 */
+	public void replace(String channelId, Collection<ChatMessage> messages) {
+		getLog(channelId).thenAccept(log -> log.replace(messages));
+	}
+
+	/**
+	 * Drops all messages the channel's persistence settings don't keep anymore.
+	 */
+	public void retain(String channelId, Persistence persistence) {
+		getLog(channelId).thenAccept(log -> log.retain(persistence));
+	}
+
+	private CompletableFuture<Log> getLog(String channelId) {
+		User self = API.getInstance().getSelf();
+		if (self == null) {
+			// without an account there is no directory to read from, so nothing is kept until it is known
+			return CompletableFuture.completedFuture(new Log(null));
+		}
+		String owner = self.getUuid();
+		String key = owner + "/" + channelId;
+		CompletableFuture<Log> log = logs.get(key);
+		if (log != null) {
+			return log;
+		}
+		CompletableFuture<Log> created = new CompletableFuture<>();
+		log = logs.putIfAbsent(key, created);
+		if (log != null) {
+			return log;
+		}
+		CompletableFuture.supplyAsync(() -> {
+			Path file = FabricLoader.getInstance().getConfigDir().resolve("AxolotlClient")
+				.resolve("messages").resolve(owner).resolve(channelId + ".jsonl");
+			return Log.read(file, channelId);
+		}, ThreadExecuter.network()).thenCompose(Function.identity()).whenComplete((result, throwable) -> {
+			if (throwable != null) {
+				// try reading it again next time instead of failing forever
+				logs.remove(key, created);
+				created.completeExceptionally(throwable);
+			} else {
+				created.complete(result);
+			}
+		});
+		return created;
+	}
+
+	private record Entry(String id, String sender, String senderName, String content, Instant timestamp) {
+		private static Entry of(ChatMessage message) {
+			return new Entry(message.id(), message.sender().getUuid(), message.senderDisplayName(), message.content(), message.timestamp());
+		}
+
+		private static Entry fromJson(String line) {
+			JsonObject object = GsonHelper.fromJson(line);
+			return new Entry(object.get("id").getAsString(), object.get("sender").getAsString(),
+				object.get("sender_name").getAsString(), object.get("content").getAsString(),
+				Instant.ofEpochMilli(object.get("timestamp").getAsLong()));
+		}
+
+		private String toJson() {
+			JsonObject object = new JsonObject();
+			object.addProperty("id", id);
+			object.addProperty("sender", sender);
+			object.addProperty("sender_name", senderName);
+			object.addProperty("content", content);
+			object.addProperty("timestamp", timestamp.toEpochMilli());
+			return GsonHelper.GSON.toJson(object);
+		}
+	}
+
+	private static class Log {
+		private final Path file;
+		private final Map<String, ChatMessage> byId = new HashMap<>();
+		private final NavigableSet<ChatMessage> byTime = new TreeSet<>(ORDER);
+		private String lastId;
+		private int lines;
+
+		private Log(Path file) {
+			this.file = file;
+		}
+
+		private static CompletableFuture<Log> read(Path file, String channelId) {
+			Log log = new Log(file);
+			if (file == null || !Files.exists(file)) {
+				return CompletableFuture.completedFuture(log);
+			}
+			List<Entry> entries = new ArrayList<>();
+			try {
+				for (String line : Files.readAllLines(file)) {
+					if (!line.isBlank()) {
+						entries.add(Entry.fromJson(line));
+					}
+				}
+			} catch (Exception e) {
+				API.getInstance().getLogger().warn("Failed to read stored messages of channel {}, discarding them", channelId, e);
+				entries.clear();
+			}
+			log.lines = entries.size();
+			if (entries.isEmpty()) {
+				return CompletableFuture.completedFuture(log);
+			}
+			Map<String, CompletableFuture<Optional<User>>> senders = new HashMap<>();
+			entries.forEach(e -> senders.computeIfAbsent(e.sender(), UserRequest::get));
+			return CompletableFuture.allOf(senders.values().toArray(CompletableFuture[]::new)).thenApply(v -> {
+				synchronized (log) {
+					for (Entry entry : entries) {
+						senders.get(entry.sender()).join().ifPresent(sender -> log.index(new ChatMessage(entry.id(), channelId,
+							sender, entry.senderName(), entry.content(), entry.timestamp())));
+					}
+				}
+				return log;
+			});
+		}
+
+		private boolean index(ChatMessage message) {
+			if (byId.putIfAbsent(message.id(), message) != null) {
+				return false;
+			}
+			byTime.add(message);
+			if (lastId == null || ChatHandler.compareIds(message.id(), lastId) > 0) {
+				lastId = message.id();
+			}
+			return true;
+		}
+
+		private synchronized List<ChatMessage> all() {
+			return new ArrayList<>(byTime);
+		}
+
+		private synchronized List<ChatMessage> before(Instant before) {
+			// no message has an empty id, so this only matches messages sent strictly before the given time
+			ChatMessage probe = new ChatMessage("", "", null, "", "", before);
+			List<ChatMessage> page = new ArrayList<>(PAGE_SIZE);
+			Iterator<ChatMessage> it = byTime.headSet(probe, false).descendingIterator();
+			while (it.hasNext() && page.size() < PAGE_SIZE) {
+				page.add(it.next());
+			}
+			Collections.reverse(page);
+			return page;
+		}
+
+		private synchronized String lastId() {
+			return lastId;
+		}
+
+		private synchronized void addAll(Collection<ChatMessage> messages) {
+			List<ChatMessage> added = new ArrayList<>();
+			for (ChatMessage message : messages) {
+				if (index(message)) {
+					added.add(message);
+				}
+			}
+			if (added.isEmpty() || file == null) {
+				return;
+			}
+			try {
+				Files.createDirectories(file.getParent());
+				try (BufferedWriter writer = Files.newBufferedWriter(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+					for (ChatMessage message : added) {
+						writer.write(Entry.of(message).toJson());
+						writer.newLine();
+					}
+				}
+				lines += added.size();
+			} catch (IOException e) {
+				API.getInstance().getLogger().warn("Failed to store messages!", e);
+			}
+		}
+
+		private synchronized void replace(Collection<ChatMessage> messages) {
+			byId.clear();
+			byTime.clear();
+			lastId = null;
+			messages.forEach(this::index);
+			rewrite();
+		}
+
+		private synchronized void retain(Persistence persistence) {
+			int before = byTime.size();
+			if (persistence.duration() > 0) {
+				Instant oldest = Instant.now().minusSeconds(persistence.duration());
+				while (!byTime.isEmpty() && byTime.first().timestamp().isBefore(oldest)) {
+					byId.remove(byTime.pollFirst().id());
+				}
+			}
+			if (persistence.count() > 0) {
+				while (byTime.size() > persistence.count()) {
+					byId.remove(byTime.pollFirst().id());
+				}
+			}
+			if (byTime.size() < before && lines > byTime.size() * 2 + PAGE_SIZE) {
+				rewrite();
+			}
+		}
+
+		private void rewrite() {
+			if (file == null) {
+				return;
+			}
+			try {
+				Files.createDirectories(file.getParent());
+				Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+				try (BufferedWriter writer = Files.newBufferedWriter(temp)) {
+					for (ChatMessage message : byTime) {
+						writer.write(Entry.of(message).toJson());
+						writer.newLine();
+					}
+				}
+				Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+				lines = byTime.size();
+			} catch (IOException e) {
+				API.getInstance().getLogger().warn("Failed to compact stored messages!", e);
+			}
+		}
+	}
+}
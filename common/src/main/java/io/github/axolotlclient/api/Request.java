@@ -23,14 +23,17 @@
 package io.github.axolotlclient.api;
 
 
+import java.io.FileNotFoundException;
 import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.file.Path;
 import java.util.*;
 
 import lombok.Getter;
 import lombok.ToString;
 
 public record Request(Route route, List<String> path, List<String> query,
-					  Map<String, ?> bodyFields, byte[] rawBody, Map<String, String> headers,
+					  Map<String, ?> bodyFields, HttpRequest.BodyPublisher rawBody, Map<String, String> headers,
 					  boolean requiresAuthentication) {
 
 	public URI resolve() {
@@ -88,7 +91,7 @@ public static class RequestBuilder {
 		private Map<String, Object> bodyFields;
 		private Map<String, String> headers;
 		private boolean requiresAuthentication;
-		private byte[] rawBody;
+		private HttpRequest.BodyPublisher rawBody;
 
 		RequestBuilder(Route route) {
 			this.route = route;
@@ -128,7 +131,15 @@ public Request.RequestBuilder field(String key, Object value) {
 		}
 
 		public RequestBuilder rawBody(byte[] body) {
-			this.rawBody = body;
+			this.rawBody = HttpRequest.BodyPublishers.ofByteArray(body);
+			return this;
+		}
+
+		/**
+		 * Sends the contents of a file as the body, read while the request is being sent.
+		 */
+		public RequestBuilder rawBody(Path file) throws FileNotFoundException {
+			this.rawBody = HttpRequest.BodyPublishers.ofFile(file);
 			return this;
 		}
 
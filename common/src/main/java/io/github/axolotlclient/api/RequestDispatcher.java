@@ -0,0 +1,247 @@
+/*
+ * Copyright © 2026 moehreag <moehreag@gmail.com> & Contributors
+ *
+ * This file is part of AxolotlClient.
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ *
+ * For more information, see the LICENSE file.
+ */
+
+package io.github.axolotlclient.api;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import io.github.axolotlclient.util.ThreadExecuter;
+import lombok.Getter;
+
+/**
+ * Schedules API requests without blocking any pool threads.
+ * Identical GET requests that are already in flight are coalesced into a single call
+ * and every route is limited to a configurable amount of concurrently running requests.
+ * Queued requests are started on the network executor; if it rejects one, that request fails.
+ */
+public class RequestDispatcher {
+
+	private final Map<Key, CompletableFuture<Response>> inFlight = new ConcurrentHashMap<>();
+	private final Map<Request.Route, Lane> lanes = new EnumMap<>(Request.Route.class);
+	@Getter
+	private final LongAdder coalesced = new LongAdder();
+
+	public RequestDispatcher() {
+		for (Request.Route route : Request.Route.values()) {
+			lanes.put(route, new Lane(Constants.MAX_CONCURRENT_REQUESTS_PER_ROUTE));
+		}
+	}
+
+	public CompletableFuture<Response> dispatch(Request request, String method, Supplier<CompletableFuture<Response>> call) {
+		if (!"GET".equals(method) || request.rawBody() != null) {
+			return enqueue(request.route(), call);
+		}
+		Key key = new Key(request.route(), request.path(), request.query(), request.bodyFields(), request.headers());
+		CompletableFuture<Response> existing = inFlight.get(key);
+		if (existing == null) {
+			CompletableFuture<Response> future = new CompletableFuture<>();
+			existing = inFlight.putIfAbsent(key, future);
+			if (existing == null) {
+				enqueue(request.route(), call).whenComplete((response, throwable) -> {
+					inFlight.remove(key, future);
+					if (throwable != null) {
+						future.completeExceptionally(throwable);
+					} else {
+						future.complete(response);
+					}
+				});
+				return future.copy();
+			}
+		}
+		coalesced.increment();
+		return existing.copy();
+	}
+
+	/**
+	 * Runs a call once its route has a free slot, without coalescing it. The slot is held until the call's future completes.
+	 */
+	<T> CompletableFuture<T> enqueue(Request.Route route, Supplier<CompletableFuture<T>> call) {
+		Lane lane = lanes.get(route);
+		CompletableFuture<T> result = new CompletableFuture<>();
+		long queuedAt = System.nanoTime();
+		lane.submit(new Call(() -> {
+			long startedAt = System.nanoTime();
+			lane.queueTime.add(startedAt - queuedAt);
+			CompletableFuture<T> future;
+			try {
+				future = call.get();
+			} catch (Throwable t) {
+				future = CompletableFuture.failedFuture(t);
+			}
+			future.whenComplete((response, throwable) -> {
+				lane.complete(System.nanoTime() - startedAt);
+				if (throwable != null) {
+					result.completeExceptionally(throwable);
+				} else {
+					result.complete(response);
+				}
+			});
+		}, result::completeExceptionally));
+		return result;
+	}
+
+	public void setMaxConcurrency(Request.Route route, int maxConcurrency) {
+		if (maxConcurrency < 1) {
+			throw new IllegalArgumentException("Concurrency limit must be at least 1, got " + maxConcurrency);
+		}
+		lanes.get(route).setLimit(maxConcurrency);
+	}
+
+	public int getMaxConcurrency(Request.Route route) {
+		return lanes.get(route).limit;
+	}
+
+	public int getQueueDepth() {
+		return lanes.values().stream().mapToInt(Lane::getQueued).sum();
+	}
+
+	public int getInFlight() {
+		return lanes.values().stream().mapToInt(Lane::getRunning).sum();
+	}
+
+	public Stats getStats(Request.Route route) {
+		return lanes.get(route).stats();
+	}
+
+	public Map<Request.Route, Stats> getStats() {
+		Map<Request.Route, Stats> stats = new EnumMap<>(Request.Route.class);
+		lanes.forEach((route, lane) -> stats.put(route, lane.stats()));
+		return stats;
+	}
+
+	/**
+	 * A snapshot of the counters of a single route. Latencies are given in nanoseconds.
+	 */
+	public record Stats(int queued, int running, long completed, long averageQueueTime, long averageLatency,
+						long maxLatency) {
+	}
+
+	private record Key(Request.Route route, List<String> path, List<String> query, Map<String, ?> bodyFields,
+					   Map<String, String> headers) {
+	}
+
+	private record Call(Runnable task, Consumer<Throwable> onRejected) {
+	}
+
+	private static class Lane {
+		private final Deque<Call> pending = new ArrayDeque<>();
+		private final LongAdder completed = new LongAdder();
+		private final LongAdder queueTime = new LongAdder();
+		private final LongAdder latency = new LongAdder();
+		private final AtomicLong maxLatency = new AtomicLong();
+		private int running;
+		private int limit;
+
+		private Lane(int limit) {
+			this.limit = limit;
+		}
+
+		private void submit(Call call) {
+			synchronized (this) {
+				if (running >= limit) {
+					pending.add(call);
+					return;
+				}
+				running++;
+			}
+			call.task().run();
+		}
+
+		private void complete(long nanos) {
+			completed.increment();
+			latency.add(nanos);
+			maxLatency.accumulateAndGet(nanos, Math::max);
+			release();
+		}
+
+		/**
+		 * Hands the slot of a finished or rejected call to the next queued call, or frees it if there is none.
+		 */
+		private void release() {
+			while (true) {
+				Call next;
+				synchronized (this) {
+					next = running <= limit ? pending.poll() : null;
+					if (next == null) {
+						running--;
+						return;
+					}
+				}
+				// Already completed futures finish synchronously, running the next call right here would recurse once per queued request
+				if (start(next)) {
+					return;
+				}
+			}
+		}
+
+		private static boolean start(Call call) {
+			try {
+				ThreadExecuter.network().execute(call.task());
+				return true;
+			} catch (RejectedExecutionException e) {
+				call.onRejected().accept(e);
+				return false;
+			}
+		}
+
+		private void setLimit(int limit) {
+			List<Call> started = new ArrayList<>();
+			synchronized (this) {
+				this.limit = limit;
+				while (running < limit && !pending.isEmpty()) {
+					running++;
+					started.add(pending.poll());
+				}
+			}
+			for (Call call : started) {
+				if (!start(call)) {
+					release();
+				}
+			}
+		}
+
+		private synchronized int getQueued() {
+			return pending.size();
+		}
+
+		private synchronized int getRunning() {
+			return running;
+		}
+
+		private Stats stats() {
+			long count = completed.sum();
+			synchronized (this) {
+				return new Stats(pending.size(), running, count,
+					count == 0 ? 0 : queueTime.sum() / count,
+					count == 0 ? 0 : latency.sum() / count,
+					maxLatency.get());
+			}
+		}
+	}
+}
@@ -23,10 +23,16 @@
 package io.github.axolotlclient.api;
 
 import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import io.github.axolotlclient.util.GsonHelper;
 import lombok.*;
 
@@ -35,8 +41,11 @@
 @AllArgsConstructor(access = AccessLevel.PRIVATE)
 public class Response {
 	public static final Response CLIENT_ERROR = new Response(Collections.emptyMap(), "", 0, Collections.emptyMap(), new Error(0, "Client Request Error!"));
+	private static final Object UNPARSED = new Object();
+	private static final Map<String, JsonPath> PATHS = new ConcurrentHashMap<>();
 
-	private Object body;
+	@EqualsAndHashCode.Exclude
+	private volatile Object body;
 	private final String plainBody;
 	private final int status;
 	private final Map<String, List<String>> headers;
@@ -44,16 +53,30 @@ public class Response {
 
 	@Builder
 	private Response(String body, int status, Map<String, List<String>> headers) {
-		try {
-			this.body = parseJson(body);
-		} catch (IOException ignored) {
-		}
+		this.body = UNPARSED;
 		plainBody = body;
 		this.status = status;
 		this.headers = headers;
 		this.error = Error.of(this);
 	}
 
+	public Object getBody() {
+		Object o = body;
+		if (o == UNPARSED) {
+			try {
+				o = parseJson(plainBody);
+			} catch (IOException | RuntimeException e) {
+				o = null;
+			}
+			body = o;
+		}
+		return o;
+	}
+
+	public static Response ofBody(Object body) {
+		return new Response(body, "", 200, Collections.emptyMap(), null);
+	}
+
 	public boolean isError() {
 		return error != null;
 	}
@@ -94,28 +117,70 @@ public String toString() {
 
 	@SuppressWarnings("unchecked")
 	public <T> T getBody(String path) {
-		path = path.replace("\\.", "_#+#_");
-		String[] elements = path.split("\\.");
-
-		Object o = getBody();
-		for (String s : elements) {
-			s = s.replace("_#+#_", ".");
-			if (o instanceof Map<?, ?> map) {
-				if (map.containsKey(s)) {
-					o = map.get(s);
-					continue;
-				}
-			} else if (o instanceof List<?> list) {
-				try {
-					int i = Integer.parseInt(s);
-					o = list.get(i);
-					continue;
-				} catch (Exception ignored) {
-				}
+		return (T) PATHS.computeIfAbsent(path, JsonPath::compile).resolve(getBody());
+	}
+
+	/**
+	 * Reads the single value at the given path, skipping over the rest of the body instead of parsing it.
+	 * If the body has already been parsed, the value is taken from there.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T peek(String path) {
+		JsonPath compiled = PATHS.computeIfAbsent(path, JsonPath::compile);
+		Object parsed = body;
+		if (parsed != UNPARSED) {
+			return (T) compiled.resolve(parsed);
+		}
+		if (plainBody == null || plainBody.isEmpty()) {
+			return null;
+		}
+		try (JsonReader reader = new JsonReader(new StringReader(plainBody))) {
+			if (compiled.seek(reader)) {
+				return (T) GsonHelper.read(reader);
 			}
+		} catch (IOException | RuntimeException e) {
 			return null;
 		}
-		return (T) o;
+		return null;
+	}
+
+	/**
+	 * Decodes the elements of the array at the given path one by one, without materializing the whole body.
+	 * If the body has already been parsed, the existing elements are used instead.
+	 */
+	public void forEachElement(String path, Consumer<Object> action) {
+		JsonPath compiled = PATHS.computeIfAbsent(path, JsonPath::compile);
+		Object parsed = body;
+		if (parsed != UNPARSED) {
+			if (compiled.resolve(parsed) instanceof List<?> list) {
+				list.forEach(action);
+			}
+			return;
+		}
+		if (plainBody == null || plainBody.isEmpty()) {
+			return;
+		}
+		try (JsonReader reader = new JsonReader(new StringReader(plainBody))) {
+			if (compiled.seek(reader) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+				reader.beginArray();
+				while (reader.hasNext()) {
+					action.accept(GsonHelper.read(reader));
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Decodes the body straight into a typed target, without building the intermediate map tree.
+	 */
+	public <T> T decode(GsonHelper.JsonDecoder<T> decoder) {
+		try {
+			return GsonHelper.decode(plainBody, decoder);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
 	}
 
 	public <T> T getBodyOrElse(String path, T other) {
@@ -151,6 +216,86 @@ public Optional<String> firstHeader(String name) {
 		return Optional.ofNullable(headers.getOrDefault(name, null)).map(index -> index.get(0));
 	}
 
+	private record JsonPath(String[] keys, int[] indices) {
+
+		private static JsonPath compile(String path) {
+			List<String> keys = new ArrayList<>();
+			StringBuilder key = new StringBuilder();
+			for (int i = 0; i < path.length(); i++) {
+				char c = path.charAt(i);
+				if (c == '\\' && i + 1 < path.length() && path.charAt(i + 1) == '.') {
+					key.append('.');
+					i++;
+				} else if (c == '.') {
+					keys.add(key.toString());
+					key.setLength(0);
+				} else {
+					key.append(c);
+				}
+			}
+			keys.add(key.toString());
+			if (path.isEmpty()) {
+				keys.clear();
+			}
+			int[] indices = new int[keys.size()];
+			for (int i = 0; i < indices.length; i++) {
+				try {
+					indices[i] = Integer.parseInt(keys.get(i));
+				} catch (NumberFormatException e) {
+					indices[i] = -1;
+				}
+			}
+			return new JsonPath(keys.toArray(String[]::new), indices);
+		}
+
+		private Object resolve(Object o) {
+			for (int i = 0; i < keys.length; i++) {
+				if (o instanceof Map<?, ?> map && map.containsKey(keys[i])) {
+					o = map.get(keys[i]);
+				} else if (o instanceof List<?> list && indices[i] >= 0 && indices[i] < list.size()) {
+					o = list.get(indices[i]);
+				} else {
+					return null;
+				}
+			}
+			return o;
+		}
+
+		private boolean seek(JsonReader reader) throws IOException {
+			for (int i = 0; i < keys.length; i++) {
+				JsonToken token = reader.peek();
+				if (token == JsonToken.BEGIN_OBJECT) {
+					reader.beginObject();
+					boolean found = false;
+					while (reader.hasNext()) {
+						if (reader.nextName().equals(keys[i])) {
+							found = true;
+							break;
+						}
+						reader.skipValue();
+					}
+					if (!found) {
+						return false;
+					}
+				} else if (token == JsonToken.BEGIN_ARRAY && indices[i] >= 0) {
+					reader.beginArray();
+					for (int skip = 0; skip < indices[i]; skip++) {
+						if (!reader.hasNext()) {
+							return false;
+						}
+						reader.skipValue();
+					}
+					if (!reader.hasNext()) {
+						return false;
+					}
+				} else {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
 	public record Error(int httpCode, String description) {
 		public static Error of(Response response) {
 			if (response.status >= 200 && response.status < 300) {
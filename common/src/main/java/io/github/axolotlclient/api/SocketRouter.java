@@ -0,0 +1,95 @@
+/*
+ * Copyright © 2026 moehreag <moehreag@gmail.com> & Contributors
+ *
+ * This file is part of AxolotlClient.
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ *
+ * For more information, see the LICENSE file.
+ */
+
+package io.github.axolotlclient.api;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.github.axolotlclient.api.util.SocketMessageHandler;
+
+/**
+ * Routes socket messages to the handlers registered for their target.
+ * The target is read by the socket endpoint without parsing the message, the payload itself is only decoded once a handler asks for it.
+ */
+public class SocketRouter {
+
+	private final Map<String, List<SocketMessageHandler>> routes = new HashMap<>();
+	private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+	public SocketRouter(Collection<SocketMessageHandler> handlers) {
+		for (SocketMessageHandler handler : handlers) {
+			for (String target : handler.getTargets()) {
+				routes.computeIfAbsent(target, t -> new ArrayList<>(1)).add(handler);
+			}
+		}
+	}
+
+	/**
+	 * @return the target of the message, or {@code null} if no handler is registered for it
+	 */
+	public String route(String target, Response response) {
+		long start = System.nanoTime();
+		List<SocketMessageHandler> handlers = target == null ? null : routes.get(target);
+		if (handlers == null) {
+			return null;
+		}
+		for (SocketMessageHandler handler : handlers) {
+			if (handler.isApplicable(target)) {
+				handler.handle(response);
+			}
+		}
+		counters.computeIfAbsent(target, t -> new Counter()).record(System.nanoTime() - start);
+		return target;
+	}
+
+	public Map<String, Stats> getStats() {
+		Map<String, Stats> stats = new TreeMap<>();
+		counters.forEach((target, counter) -> stats.put(target, counter.stats()));
+		return stats;
+	}
+
+	/**
+	 * A snapshot of the counters of a single target. Latencies are given in nanoseconds and include the handlers.
+	 */
+	public record Stats(long handled, long averageLatency, long maxLatency) {
+	}
+
+	private static class Counter {
+		private final LongAdder handled = new LongAdder();
+		private final LongAdder latency = new LongAdder();
+		private final AtomicLong maxLatency = new AtomicLong();
+
+		private void record(long nanos) {
+			handled.increment();
+			latency.add(nanos);
+			maxLatency.accumulateAndGet(nanos, Math::max);
+		}
+
+		private Stats stats() {
+			long count = handled.sum();
+			return new Stats(count, count == 0 ? 0 : latency.sum() / count, maxLatency.get());
+		}
+	}
+}
@@ -22,6 +22,8 @@
 
 package io.github.axolotlclient.api.handlers;
 
+import java.util.Set;
+
 import io.github.axolotlclient.api.API;
 import io.github.axolotlclient.api.Response;
 import io.github.axolotlclient.api.requests.ChannelRequest;
@@ -31,8 +33,8 @@
 
 public class ChannelInviteHandler implements SocketMessageHandler {
 	@Override
-	public boolean isApplicable(String target) {
-		return "channel_invite".equals(target) || "channel_invite_reaction".equals(target);
+	public Set<String> getTargets() {
+		return Set.of("channel_invite", "channel_invite_reaction");
 	}
 
 	@Override
@@ -44,7 +46,8 @@ public void handle(Response response) {
 			case "channel_invite" -> {
 				String from = response.getBody("from");
 				if (API.getInstance().getApiOptions().channelInvitesEnabled.get()) {
-					notification("api.channels.invite", "api.channels.invite.desc", UUIDHelper.getUsername(from), channelName);
+					UUIDHelper.resolveUsername(from).thenAccept(name ->
+						notification("api.channels.invite", "api.channels.invite.desc", name.orElse(from), channelName));
 				} else {
 					ChannelRequest.ignoreChannelInvite(new ChannelInvite(id, channelName, from));
 				}
@@ -52,11 +55,13 @@ public void handle(Response response) {
 			case "channel_invite_reaction" -> {
 				String player = response.getBody("player");
 				boolean accepted = response.getBody("accepted");
-				if (accepted) {
-					notification("api.channels.invite.accepted", "api.channels.invite.accepted.desc", UUIDHelper.getUsername(player), channelName);
-				} else {
-					notification("api.channels.invite.denied", "api.channels.invite.denied.desc", UUIDHelper.getUsername(player), channelName);
-				}
+				UUIDHelper.resolveUsername(player).thenAccept(name -> {
+					if (accepted) {
+						notification("api.channels.invite.accepted", "api.channels.invite.accepted.desc", name.orElse(player), channelName);
+					} else {
+						notification("api.channels.invite.denied", "api.channels.invite.denied.desc", name.orElse(player), channelName);
+					}
+				});
 			}
 		}
 	}
@@ -23,16 +23,23 @@
 package io.github.axolotlclient.api.handlers;
 
 import java.time.Instant;
-import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 import io.github.axolotlclient.api.API;
+import io.github.axolotlclient.api.MessageStore;
 import io.github.axolotlclient.api.Request;
 import io.github.axolotlclient.api.Response;
+import io.github.axolotlclient.api.requests.ChannelRequest;
 import io.github.axolotlclient.api.requests.UserRequest;
 import io.github.axolotlclient.api.types.Channel;
+import io.github.axolotlclient.api.types.ChannelIndex;
 import io.github.axolotlclient.api.types.ChatMessage;
 import io.github.axolotlclient.api.util.SocketMessageHandler;
 import lombok.Getter;
@@ -45,6 +52,7 @@ public class ChatHandler implements SocketMessageHandler {
 	public static final Consumer<List<ChatMessage>> DEFAULT_MESSAGES_CONSUMER = messages -> {
 	};
 	public static final NotificationsEnabler DEFAULT = message -> true;
+	public static final Predicate<ChatMessage> NOT_SHOWN = message -> false;
 	@Getter
 	private static final ChatHandler Instance = new ChatHandler();
 	@Setter
@@ -53,10 +61,15 @@ public class ChatHandler implements SocketMessageHandler {
 	private Consumer<List<ChatMessage>> messagesConsumer = DEFAULT_MESSAGES_CONSUMER;
 	@Setter
 	private NotificationsEnabler enableNotifications = DEFAULT;
+	@Setter
+	private Predicate<ChatMessage> shownMessages = NOT_SHOWN;
+	private final Map<String, String> lastSeenMessages = new ConcurrentHashMap<>();
+	private final Set<String> synced = ConcurrentHashMap.newKeySet();
+	private CompletableFuture<Void> pending = CompletableFuture.completedFuture(null);
 
 	@Override
-	public boolean isApplicable(String target) {
-		return "chat_message".equals(target);
+	public Set<String> getTargets() {
+		return Set.of("chat_message");
 	}
 
 	@Override
@@ -67,11 +80,22 @@ public void handle(Response response) {
 		String sender = response.getBody("sender");
 		String senderName = response.getBody("sender_name");
 		String content = response.getBody("content");
-		ChatMessage message = new ChatMessage(id, channelId, UserRequest.get(sender).join().orElseThrow(), senderName, content, time);
-		if (enableNotifications.showNotification(message)) {
-			notification(API.getInstance().getTranslationProvider().translate("api.chat.newMessageFrom", message.sender().getName()), message.content());
+		// the sender may have to be requested first, chaining keeps the messages in the order they arrived in
+		synchronized (this) {
+			pending = pending.thenCompose(v -> UserRequest.get(sender)).thenAccept(user -> {
+				ChatMessage message = new ChatMessage(id, channelId, user.orElseThrow(), senderName, content, time);
+				markSeen(message);
+				MessageStore.getInstance().add(message);
+				ChannelIndex.getInstance().onMessage(message);
+				if (enableNotifications.showNotification(message)) {
+					notification(API.getInstance().getTranslationProvider().translate("api.chat.newMessageFrom", message.sender().getName()), message.content());
+				}
+				messageConsumer.accept(message);
+			}).exceptionally(t -> {
+				API.getInstance().getLogger().warn("Failed to handle chat message {} in channel {}", id, channelId, t);
+				return null;
+			});
 		}
-		messageConsumer.accept(message);
 	}
 
 	public void sendMessage(Channel channel, String message) {
@@ -83,30 +107,99 @@ public void sendMessage(Channel channel, String message) {
 		API.getInstance().post(Request.Route.CHANNEL.builder().path(channel.getId()).field("content", message)
 			.field("display_name", displayName).build())
 			.whenComplete((res, th) -> {
+				if (th != null || res.isError()) {
+					// without a server-assigned id the message can't be tracked, so it isn't shown as sent
+					API.getInstance().getLogger().warn("Failed to send message to channel {}", channel.getId(), th);
+					API.getInstance().getNotificationProvider().addStatus("api.failure.chat.send", "api.failure.chat.send.desc", channel.getName());
+					return;
+				}
 				ChatMessage msg = new ChatMessage(res.getPlainBody(), channel.getId(), API.getInstance().getSelf(), displayName, message, Instant.now());
+				markSeen(msg);
+				MessageStore.getInstance().add(msg);
+				ChannelIndex.getInstance().touch(channel, msg.timestamp());
 				messageConsumer.accept(msg);
 				channel.getMessages().add(msg);
 			});
 	}
 
-	@SuppressWarnings("unchecked")
-	public void getMessagesBefore(Channel channel, long getBefore) {
-		API.getInstance().get(Request.Route.CHANNEL.builder().path(channel.getId()).path("messages")
-				.query("before", Instant.ofEpochSecond(getBefore).toString()).build())
-			.thenAccept(res -> {
-				List<Map<String, Object>> messages = (List<Map<String, Object>>) res.getBody();
-
-				List<ChatMessage> deserialized = new ArrayList<>();
-
-				for (Map<String, Object> o : messages) {
-					deserialized.add(new ChatMessage(Long.toUnsignedString((long) o.get("id")),
-						Long.toUnsignedString((long) o.get("channel_id")),
-						UserRequest.get((String) o.get("sender")).join().orElseThrow(), (String) o.get("sender_name"),
-						(String) o.get("content"), Instant.parse((CharSequence) o.get("timestamp"))));
-				}
+	/**
+	 * Delivers the messages that were sent to the channels seen in this session while the socket was disconnected.
+	 */
+	public void catchUp() {
+		// the channels seen in this session are caught up here, all others once they are loaded again
+		synced.clear();
+		synced.addAll(lastSeenMessages.keySet());
+		lastSeenMessages.forEach((channelId, lastSeen) -> ChannelRequest.getMessagesSince(channelId, lastSeen).thenAccept(delta -> {
+			store(channelId, delta);
+			delta.messages().stream()
+				.sorted(Comparator.comparing(ChatMessage::id, ChatHandler::compareIds))
+				.forEach(m -> {
+					markSeen(m);
+					ChannelIndex.getInstance().onMessage(m);
+					messageConsumer.accept(m);
+				});
+		}));
+	}
+
+	/**
+	 * Fetches the messages of a channel that are newer than the stored ones and adds them to it.
+	 * They are only passed on to the message consumer if the channel is currently shown.
+	 * Every channel is synced once per connection, as the socket delivers everything sent afterwards.
+	 */
+	public void sync(Channel channel) {
+		if (!synced.add(channel.getId())) {
+			return;
+		}
+		MessageStore.getInstance().getLastId(channel.getId()).thenAccept(lastId -> lastId.ifPresent(id ->
+			ChannelRequest.getMessagesSince(channel.getId(), id).thenAccept(delta -> {
+				store(channel.getId(), delta);
+				delta.messages().stream()
+					.sorted(Comparator.comparing(ChatMessage::id, ChatHandler::compareIds))
+					.forEach(m -> {
+						channel.getMessages().add(m);
+						ChannelIndex.getInstance().touch(channel, m.timestamp());
+						markSeen(m);
+						if (shownMessages.test(m)) {
+							messageConsumer.accept(m);
+						}
+					});
+			})));
+	}
+
+	private static void store(String channelId, ChannelRequest.Delta delta) {
+		if (delta.complete()) {
+			MessageStore.getInstance().addAll(channelId, delta.messages());
+		} else {
+			MessageStore.getInstance().replace(channelId, delta.messages());
+		}
+	}
+
+	private void markSeen(ChatMessage message) {
+		lastSeenMessages.merge(message.channelId(), message.id(), (a, b) -> compareIds(a, b) >= 0 ? a : b);
+	}
 
-				messagesConsumer.accept(deserialized);
+	public static int compareIds(String a, String b) {
+		try {
+			return Long.compareUnsigned(Long.parseUnsignedLong(a), Long.parseUnsignedLong(b));
+		} catch (NumberFormatException e) {
+			return a.compareTo(b);
+		}
+	}
+
+	/**
+	 * Loads older messages, from the local store if it has any and from the backend otherwise.
+	 */
+	public void getMessagesBefore(Channel channel, long getBefore) {
+		Instant before = Instant.ofEpochSecond(getBefore);
+		MessageStore.getInstance().getMessagesBefore(channel.getId(), before).thenCompose(stored -> {
+			if (!stored.isEmpty()) {
+				return CompletableFuture.completedFuture(stored);
+			}
+			return ChannelRequest.getMessages(channel.getId(), before).thenApply(messages -> {
+				MessageStore.getInstance().addAll(channel.getId(), messages);
+				return messages;
 			});
+		}).thenAccept(messagesConsumer);
 	}
 
 	public void reportMessage(ChatMessage message) {
@@ -22,6 +22,8 @@
 
 package io.github.axolotlclient.api.handlers;
 
+import java.util.Set;
+
 import io.github.axolotlclient.api.API;
 import io.github.axolotlclient.api.Response;
 import io.github.axolotlclient.api.requests.FriendRequest;
@@ -31,15 +33,16 @@
 
 public class FriendRequestHandler implements SocketMessageHandler {
 	@Override
-	public boolean isApplicable(String target) {
-		return "friend_request".equals(target);
+	public Set<String> getTargets() {
+		return Set.of("friend_request");
 	}
 
 	@Override
 	public void handle(Response response) {
 		String from = response.getBody("from");
 		if (API.getInstance().getApiOptions().friendRequestsEnabled.get()) {
-			notification("api.friends", "api.friends.request", UUIDHelper.getUsername(from));
+			UUIDHelper.resolveUsername(from).thenAccept(name ->
+				notification("api.friends", "api.friends.request", name.orElse(from)));
 		} else {
 			FriendRequest.getInstance().setRelation(from, Relation.NONE);
 		}
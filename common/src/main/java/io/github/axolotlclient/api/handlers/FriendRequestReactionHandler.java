@@ -22,23 +22,28 @@
 
 package io.github.axolotlclient.api.handlers;
 
+import java.util.Set;
+
 import io.github.axolotlclient.api.Response;
 import io.github.axolotlclient.api.util.SocketMessageHandler;
 import io.github.axolotlclient.api.util.UUIDHelper;
 
 public class FriendRequestReactionHandler implements SocketMessageHandler {
 	@Override
-	public boolean isApplicable(String target) {
-		return "friend_request_accept".equals(target) || "friend_request_deny".equals(target);
+	public Set<String> getTargets() {
+		return Set.of("friend_request_accept", "friend_request_deny");
 	}
 
 	@Override
 	public void handle(Response response) {
 		String from = response.getBody("from");
-		if ("friend_request_accept".equals(response.getBody("target"))) {
-			notification("api.friends", "api.friends.request.accepted", UUIDHelper.getUsername(from));
-		} else {
-			notification("api.friends", "api.friends.request.declined", UUIDHelper.getUsername(from));
-		}
+		boolean accepted = "friend_request_accept".equals(response.getBody("target"));
+		UUIDHelper.resolveUsername(from).thenAccept(name -> {
+			if (accepted) {
+				notification("api.friends", "api.friends.request.accepted", name.orElse(from));
+			} else {
+				notification("api.friends", "api.friends.request.declined", name.orElse(from));
+			}
+		});
 	}
 }
@@ -25,6 +25,7 @@
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Consumer;
 
 import io.github.axolotlclient.api.API;
@@ -44,9 +45,14 @@ public static void addUpdateListener(Consumer<User> listener) {
 		updateListeners.add(listener);
 	}
 
+	@Override
+	public Set<String> getTargets() {
+		return Set.of("activity_update");
+	}
+
 	@Override
 	public boolean isApplicable(String target) {
-		return "activity_update".equals(target) && API.getInstance().getApiOptions().statusUpdateNotifs.get();
+		return SocketMessageHandler.super.isApplicable(target) && API.getInstance().getApiOptions().statusUpdateNotifs.get();
 	}
 
 	@Override
@@ -67,7 +73,9 @@ public void handle(Response response) {
 		}
 		Instant started = response.getBody("activity.started", Instant::parse);
 		Status.Activity activity = new Status.Activity(title, description, desc, started);
-		notification("api.friends.activity.update", translate(title) + ": " + translate(description), UUIDHelper.getUsername(uuid));
+		String text = translate(title) + ": " + translate(description);
+		UUIDHelper.resolveUsername(uuid).thenAccept(name ->
+			notification("api.friends.activity.update", text, name.orElse(uuid)));
 		UserRequest.get(uuid).thenAccept(u -> {
 			User user = u.orElseThrow();
 			user.getStatus().setOnline(true);
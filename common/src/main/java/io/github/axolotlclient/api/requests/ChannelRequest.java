@@ -25,74 +25,173 @@
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import io.github.axolotlclient.api.API;
+import io.github.axolotlclient.api.MessageStore;
 import io.github.axolotlclient.api.Request;
 import io.github.axolotlclient.api.Response;
+import io.github.axolotlclient.api.handlers.ChatHandler;
 import io.github.axolotlclient.api.types.*;
 import io.github.axolotlclient.api.util.UUIDHelper;
 
 public class ChannelRequest {
 
+	private static final int MAX_SYNC_PAGES = 10;
+
 	public static CompletableFuture<Channel> getById(String id) {
 		if (id.isEmpty()) {
 			return CompletableFuture.failedFuture(new IllegalArgumentException("Empty channel id"));
 		}
-		return API.getInstance().get(Request.Route.CHANNEL.builder().path(id).build()).thenApply(ChannelRequest::parseChannel);
+		return API.getInstance().get(Request.Route.CHANNEL.builder().path(id).build()).thenCompose(ChannelRequest::parseChannel);
 	}
 
-	@SuppressWarnings("unchecked")
-	private static Channel parseChannel(Response response) {
+	private static CompletableFuture<Channel> parseChannel(Response response) {
 		String id = Long.toUnsignedString(response.<Long>getBody("id"));
 		String name = response.getBody("name");
 		List<String> participantUuids = response.getBody("participants");
-		User owner = UserRequest.get(response.getBody("owner")).join().orElseThrow();
-		List<User> participants = participantUuids.stream().map(UserRequest::get)
-			.map(CompletableFuture::join).map(Optional::orElseThrow).toList();
-
-		List<ChatMessage> deserialized = new ArrayList<>();
 		Persistence persistence = Persistence.fromJson(response.getBody("persistence"));
-		API.getInstance().get(Request.Route.CHANNEL.builder().path(id).path("messages")
-				.build())
-			.thenAccept(res -> {
-				List<Map<String, Object>> messages = (List<Map<String, Object>>) res.getBody();
-
-				for (Map<String, Object> o : messages) {
-					deserialized.add(new ChatMessage(Long.toUnsignedString((long) o.get("id")), Long.toUnsignedString((long) o.get("channel_id")),
-						UserRequest.get((String) o.get("sender")).join().orElseThrow(), (String) o.get("sender_name"),
-						(String) o.get("content"), Instant.parse((CharSequence) o.get("timestamp"))));
+
+		CompletableFuture<User> ownerFuture = UserRequest.get(response.getBody("owner")).thenApply(Optional::orElseThrow);
+		CompletableFuture<List<User>> participantsFuture = allOf(participantUuids.stream()
+			.map(uuid -> UserRequest.get(uuid).thenApply(Optional::orElseThrow)).toList());
+		CompletableFuture<List<ChatMessage>> storedFuture = MessageStore.getInstance().getMessagesBefore(id, Instant.MAX);
+		CompletableFuture<List<ChatMessage>> messagesFuture = storedFuture.thenCompose(stored -> {
+			if (!stored.isEmpty()) {
+				return CompletableFuture.completedFuture(new ArrayList<>(stored));
+			}
+			return getMessages(id, null).thenApply(messages -> {
+				MessageStore.getInstance().addAll(id, messages);
+				return messages;
+			});
+		});
+
+		return CompletableFuture.allOf(ownerFuture, participantsFuture, messagesFuture).thenApply(v -> {
+			User owner = ownerFuture.join();
+			List<User> participants = participantsFuture.join();
+			List<ChatMessage> messages = messagesFuture.join();
+			Channel channel = null;
+			if (participants.size() == 1) {
+				User other = owner.equals(API.getInstance().getSelf()) ? participants.get(0) : owner;
+				if (createDmChannelName(other.getUuid()).equals(name)) {
+					channel = new Channel.DM(id, name, persistence, participants, owner, messages);
 				}
-			}).join();
-		if (participants.size() == 1) {
-			User other = owner.equals(API.getInstance().getSelf()) ? participants.get(0) : owner;
-			if (createDmChannelName(other.getUuid()).equals(name)) {
-				return new Channel.DM(id, name, persistence, participants, owner, deserialized);
 			}
-		}
-		return new Channel.Group(id, name, persistence, participants, owner, deserialized);
+			if (channel == null) {
+				channel = new Channel.Group(id, name, persistence, participants, owner, messages);
+			}
+			MessageStore.getInstance().retain(id, persistence);
+			ChannelIndex.getInstance().put(channel);
+			if (!storedFuture.join().isEmpty()) {
+				// the stored messages are shown right away, anything sent since then is added once it arrives
+				ChatHandler.getInstance().sync(channel);
+			}
+			return channel;
+		});
 	}
 
 	@SuppressWarnings("unchecked")
+	public static CompletableFuture<List<ChatMessage>> getMessages(String channelId, Instant before) {
+		Request.RequestBuilder request = Request.Route.CHANNEL.builder().path(channelId).path("messages");
+		if (before != null) {
+			request.query("before", before.toString());
+		}
+		return API.getInstance().get(request.build()).thenCompose(res -> {
+			if (res.isError()) {
+				return CompletableFuture.completedFuture(new ArrayList<>());
+			}
+			List<CompletableFuture<ChatMessage>> messages = new ArrayList<>();
+			res.forEachElement("", e -> {
+				Map<String, Object> o = (Map<String, Object>) e;
+				messages.add(UserRequest.get((String) o.get("sender")).thenApply(sender ->
+					new ChatMessage(Long.toUnsignedString((long) o.get("id")), Long.toUnsignedString((long) o.get("channel_id")),
+						sender.orElseThrow(), (String) o.get("sender_name"),
+						(String) o.get("content"), Instant.parse((CharSequence) o.get("timestamp")))));
+			});
+			return allOf(messages);
+		});
+	}
+
+	/**
+	 * Fetches the messages of a channel that are newer than the given message,
+	 * following older pages until that message is reached.
+	 */
+	public static CompletableFuture<Delta> getMessagesSince(String channelId, String lastId) {
+		return getMessagesSince(channelId, lastId, null, MAX_SYNC_PAGES);
+	}
+
+	private static CompletableFuture<Delta> getMessagesSince(String channelId, String lastId, Instant before, int pages) {
+		return getMessages(channelId, before).thenCompose(page -> {
+			List<ChatMessage> newer = new ArrayList<>(page.stream().filter(m -> ChatHandler.compareIds(m.id(), lastId) > 0).toList());
+			if (newer.size() < page.size() || page.isEmpty()) {
+				return CompletableFuture.completedFuture(new Delta(newer, true));
+			}
+			if (pages <= 1) {
+				return CompletableFuture.completedFuture(new Delta(newer, false));
+			}
+			Instant oldest = page.stream().map(ChatMessage::timestamp).min(Comparator.naturalOrder()).orElseThrow();
+			return getMessagesSince(channelId, lastId, oldest, pages - 1).thenApply(older -> {
+				List<ChatMessage> messages = new ArrayList<>(older.messages());
+				messages.addAll(newer);
+				return new Delta(messages, older.complete());
+			});
+		});
+	}
+
+	/**
+	 * @param complete whether the messages reach back to the requested message, or there might be a gap in between
+	 */
+	public record Delta(List<ChatMessage> messages, boolean complete) {
+	}
+
 	public static CompletableFuture<List<Channel>> getChannelList() {
+		return getChannelList(channel -> {
+		});
+	}
+
+	/**
+	 * Fetches all channels, passing each one to the given consumer as soon as it has been loaded.
+	 * The consumer is called from a network thread, in no particular order.
+	 */
+	@SuppressWarnings("unchecked")
+	public static CompletableFuture<List<Channel>> getChannelList(Consumer<Channel> onChannelLoaded) {
 		return API.getInstance().get(Request.Route.CHANNELS.create())
-			.thenApply(response -> {
-				List<Long> ids = (List<Long>) response.getBody();
-				return ids.stream().map(Long::toUnsignedString)
-					.map(ChannelRequest::getById).map(CompletableFuture::join).toList();
+			.thenCompose(response -> {
+				if (!(response.getBody() instanceof List<?>)) {
+					return CompletableFuture.completedFuture(List.of());
+				}
+				List<String> ids = ((List<Long>) response.getBody()).stream().map(Long::toUnsignedString).toList();
+				// channels we were removed from in the meantime are not listed anymore
+				ChannelIndex.getInstance().retain(ids);
+				return allOf(ids.stream()
+					.map(id -> getById(id).thenApply(channel -> {
+						onChannelLoaded.accept(channel);
+						return channel;
+					})).toList());
 			});
 	}
 
+	private static <T> CompletableFuture<List<T>> allOf(List<CompletableFuture<T>> futures) {
+		return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).thenApply(v -> {
+			List<T> results = new ArrayList<>(futures.size());
+			futures.forEach(f -> results.add(f.join()));
+			return results;
+		});
+	}
+
 	public static CompletableFuture<?> createChannel(String name, Persistence persistence, String... users) {
 		if (name.isEmpty()) {
 			return CompletableFuture.failedFuture(new Throwable("name is empty"));
 		}
-		List<String> participants = new ArrayList<>();
-		for (String username : users) {
-			participants.add(UUIDHelper.getUuid(username));
-		}
-		return API.getInstance().post(Request.Route.CHANNEL.builder()
-			.field("name", name).field("persistence", persistence.toJson())
-			.field("participants", participants).build());
+		return UUIDHelper.resolveUuids(Arrays.asList(users)).thenCompose(uuids -> {
+			List<String> participants = new ArrayList<>();
+			for (String username : users) {
+				participants.add(uuids.getOrDefault(username, username));
+			}
+			return API.getInstance().post(Request.Route.CHANNEL.builder()
+				.field("name", name).field("persistence", persistence.toJson())
+				.field("participants", participants).build());
+		});
 		//.thenApply(Response::getPlainBody).thenCompose(ChannelRequest::getById);
 	}
 
@@ -102,23 +201,31 @@ public static void updateChannel(String id, String name, Persistence persistence
 	}
 
 	public static CompletableFuture<?> leaveOrDeleteChannel(Channel channel) {
+		ChannelIndex.getInstance().remove(channel.getId());
 		return API.getInstance().delete(Request.Route.CHANNEL.builder().path(channel.getId()).build());
 	}
 
 	public static CompletableFuture<Channel> getOrCreateDM(User user) {
+		// the channels are usually loaded already, only ask for them again if the DM isn't among them
+		Optional<Channel> known = ChannelIndex.getInstance().getChannels().stream().filter(c -> isDmWith(c, user)).findFirst();
+		if (known.isPresent()) {
+			return CompletableFuture.completedFuture(known.get());
+		}
+		return getChannelList().thenApply(list -> list.stream().filter(c -> isDmWith(c, user)).findFirst())
+			.thenCompose(opt -> opt.map(CompletableFuture::completedFuture).orElseGet(() -> API.getInstance().post(Request.Route.CHANNEL.builder()
+					.field("name", createDmChannelName(user.getUuid())).field("persistence", Persistence.of(Persistence.Type.CHANNEL, 0, 0).toJson())
+					.field("participants", List.of(user.getUuid())).build())
+				.thenApply(Response::getPlainBody).thenCompose(ChannelRequest::getById)));
+	}
 
-		return getChannelList().thenApply(list -> list.stream().filter(c -> {
-			if (!(c instanceof Channel.DM dm)) {
-				return false;
-			}
-			if (dm.getOwner().equals(API.getInstance().getSelf()) && dm.getReceiver().equals(user)) {
-				return true;
-			}
-			return c.getOwner().equals(user) && dm.getParticipants().get(0).equals(API.getInstance().getSelf());
-		}).findFirst()).thenApply(opt -> opt.orElseGet(() -> API.getInstance().post(Request.Route.CHANNEL.builder()
-				.field("name", createDmChannelName(user.getUuid())).field("persistence", Persistence.of(Persistence.Type.CHANNEL, 0, 0).toJson())
-				.field("participants", List.of(user.getUuid())).build())
-			.thenApply(Response::getPlainBody).thenCompose(ChannelRequest::getById).join()));
+	private static boolean isDmWith(Channel c, User user) {
+		if (!(c instanceof Channel.DM dm)) {
+			return false;
+		}
+		if (dm.getOwner().equals(API.getInstance().getSelf()) && dm.getReceiver().equals(user)) {
+			return true;
+		}
+		return c.getOwner().equals(user) && dm.getParticipants().get(0).equals(API.getInstance().getSelf());
 	}
 
 	private static String createDmChannelName(String otherUuid) {
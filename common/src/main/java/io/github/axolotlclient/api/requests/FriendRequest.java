@@ -51,14 +51,15 @@ public CompletableFuture<Response> setRelation(String uuid, Relation relation) {
 	}
 
 	public CompletableFuture<?> addFriend(String uuid) {
-		return setRelation(uuid, Relation.REQUEST).whenCompleteAsync((response, t) -> {
+		return setRelation(uuid, Relation.REQUEST).thenAcceptBoth(UUIDHelper.resolveUsername(uuid), (response, name) -> {
+			String username = name.orElse(uuid);
 			if (!response.isError()) {
 				api.getNotificationProvider()
-					.addStatus("api.success.request_sent", "api.success.request_sent.desc", UUIDHelper.getUsername(uuid));
+					.addStatus("api.success.request_sent", "api.success.request_sent.desc", username);
 			} else if (response.getError().httpCode() == 404) {
-				api.getNotificationProvider().addStatus("api.failure.request_sent", "api.failure.request_sent.not_found", UUIDHelper.getUsername(uuid));
+				api.getNotificationProvider().addStatus("api.failure.request_sent", "api.failure.request_sent.not_found", username);
 			} else if (response.getError().httpCode() == 403) {
-				api.getNotificationProvider().addStatus("api.failure.request_sent", "api.failure.request_sent.forbidden", UUIDHelper.getUsername(uuid));
+				api.getNotificationProvider().addStatus("api.failure.request_sent", "api.failure.request_sent.forbidden", username);
 			}
 		});
 	}
@@ -102,8 +103,11 @@ public CompletableFuture<List<String>> getFriendUuids() {
 	}
 
 	public CompletableFuture<List<User>> getFriends() {
-		return getFriendUuids()
-			.thenApply(r -> r.stream().map(UserRequest::get).map(CompletableFuture::join).map(Optional::orElseThrow).toList());
+		return getFriendUuids().thenCompose(r -> {
+			List<CompletableFuture<Optional<User>>> users = r.stream().map(UserRequest::get).toList();
+			return CompletableFuture.allOf(users.toArray(CompletableFuture[]::new))
+				.thenApply(v -> users.stream().map(CompletableFuture::join).map(Optional::orElseThrow).toList());
+		});
 	}
 
 	public CompletableFuture<BiContainer<List<User>, List<User>>> getFriendRequests() {
@@ -31,12 +31,15 @@
 import com.google.common.cache.CacheBuilder;
 import com.google.common.util.concurrent.RateLimiter;
 import io.github.axolotlclient.api.API;
+import io.github.axolotlclient.api.Constants;
 import io.github.axolotlclient.api.Request;
+import io.github.axolotlclient.api.Response;
 import io.github.axolotlclient.api.types.Relation;
 import io.github.axolotlclient.api.types.Status;
 import io.github.axolotlclient.api.types.User;
 import io.github.axolotlclient.api.util.TimestampParser;
 import io.github.axolotlclient.util.GsonHelper;
+import io.github.axolotlclient.util.ThreadExecuter;
 
 @SuppressWarnings("UnstableApiUsage")
 public class UserRequest {
@@ -47,6 +50,10 @@ public class UserRequest {
 	private static final Cache<String, Boolean> onlineCache = CacheBuilder.newBuilder().maximumSize(100).expireAfterAccess(10, TimeUnit.SECONDS)
 		.expireAfterWrite(2, TimeUnit.MINUTES).build();
 	private static final Set<String> onlineRequests = Collections.synchronizedSet(new TreeSet<>());
+	private static final int BATCH_WINDOW_MS = 15;
+	private static final int MAX_BATCH_SIZE = 50;
+	private static final Map<String, CompletableFuture<Optional<User>>> pendingBatch = new HashMap<>();
+	private static volatile boolean batchSupported = Constants.BATCH_USER_REQUESTS;
 
 	public static boolean getOnline(String uuid) {
 
@@ -79,51 +86,127 @@ public static CompletableFuture<Optional<User>> get(String dUuid) {
 		if (userCache.asMap().containsKey(uuid)) {
 			return CompletableFuture.completedFuture(userCache.asMap().get(uuid));
 		}
-		return API.getInstance().get(Request.Route.USER.builder().path(uuid).build()).thenApply(response -> {
+		CompletableFuture<Optional<User>> future;
+		int batchSize;
+		synchronized (pendingBatch) {
+			future = pendingBatch.get(uuid);
+			if (future != null) {
+				return future.copy();
+			}
+			future = new CompletableFuture<>();
+			pendingBatch.put(uuid, future);
+			batchSize = pendingBatch.size();
+		}
+		if (!batchSupported || batchSize >= MAX_BATCH_SIZE) {
+			flushBatch();
+		} else if (batchSize == 1) {
+			CompletableFuture.delayedExecutor(BATCH_WINDOW_MS, TimeUnit.MILLISECONDS, ThreadExecuter.service())
+				.execute(UserRequest::flushBatch);
+		}
+		return future.copy();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void flushBatch() {
+		Map<String, CompletableFuture<Optional<User>>> batch;
+		synchronized (pendingBatch) {
+			if (pendingBatch.isEmpty()) {
+				return;
+			}
+			batch = new HashMap<>(pendingBatch);
+			pendingBatch.clear();
+		}
+		if (batch.size() == 1 || !batchSupported) {
+			batch.forEach(UserRequest::fetchSingle);
+			return;
+		}
+		API.getInstance().get(Request.Route.USER.builder().query("uuids", String.join(",", batch.keySet())).build())
+			.thenAccept(response -> {
+				if (response.isError() || !(response.getBody() instanceof List<?>)) {
+					int code = response.getStatus();
+					if (code == 200 || code == 400 || code == 404 || code == 405) {
+						API.getInstance().logDetailed("Backend does not support batched user requests, falling back to single requests");
+						batchSupported = false;
+					}
+					batch.forEach(UserRequest::fetchSingle);
+					return;
+				}
+				for (Map<String, Object> entry : (List<Map<String, Object>>) response.getBody()) {
+					User user = parseUser(Response.ofBody(entry));
+					String uuid = API.getInstance().sanitizeUUID(user.getUuid());
+					CompletableFuture<Optional<User>> future = batch.remove(uuid);
+					Optional<User> opt = Optional.of(user);
+					userCache.put(uuid, opt);
+					if (future != null) {
+						future.complete(opt);
+					}
+				}
+				batch.forEach((uuid, future) -> {
+					userCache.put(uuid, Optional.empty());
+					future.complete(Optional.empty());
+				});
+			}).exceptionally(t -> {
+				batch.values().forEach(f -> f.completeExceptionally(t));
+				return null;
+			});
+	}
+
+	private static void fetchSingle(String uuid, CompletableFuture<Optional<User>> future) {
+		API.getInstance().get(Request.Route.USER.builder().path(uuid).build()).thenApply(response -> {
 			if (response.isError()) {
 				return null;
 			}
-			return new User(
-				response.getBody("uuid"),
-				response.getBody("username"),
-				Relation.get(response.getBodyOrElse("relation", "none")),
-				response.getBody("registered", TimestampParser::parse),
-				new Status(response.getBody("status.type").equals("online"),
-					response.getBody("status.last_online", TimestampParser::parse),
-					response.ifBodyHas("status.activity", () -> {
-						String desc = response.getBody("status.activity.description");
-						String description;
-						if (desc.contains("{")) {
-							try {
-								var json = GsonHelper.fromJson(desc);
-								description = json.has("value") ? json.get("value").getAsString() : "";
-							} catch (Throwable t) {
-								description = desc;
-							}
-						} else {
-							description = desc;
-						}
-						return new Status.Activity(response.getBody("status.activity.title"),
-							description, desc,
-							response.getBody("status.activity.started", TimestampParser::parse));
-					})
-				),
-				response.getBody("previous_usernames", (List<String> list) ->
-					list.stream().map(s -> new User.OldUsername(s, true)).collect(Collectors.toList())));
+			return parseUser(response);
 		}).thenApply(u -> {
 			Optional<User> opt = Optional.ofNullable(u);
 			userCache.put(uuid, opt);
 			return opt;
+		}).whenComplete((opt, t) -> {
+			if (t != null) {
+				future.completeExceptionally(t);
+			} else {
+				future.complete(opt);
+			}
 		});
 	}
 
-	@SuppressWarnings("unchecked")
+	private static User parseUser(Response response) {
+		return new User(
+			response.getBody("uuid"),
+			response.getBody("username"),
+			Relation.get(response.getBodyOrElse("relation", "none")),
+			response.getBody("registered", TimestampParser::parse),
+			new Status(response.getBody("status.type").equals("online"),
+				response.getBody("status.last_online", TimestampParser::parse),
+				response.ifBodyHas("status.activity", () -> {
+					String desc = response.getBody("status.activity.description");
+					String description;
+					if (desc.contains("{")) {
+						try {
+							var json = GsonHelper.fromJson(desc);
+							description = json.has("value") ? json.get("value").getAsString() : "";
+						} catch (Throwable t) {
+							description = desc;
+						}
+					} else {
+						description = desc;
+					}
+					return new Status.Activity(response.getBody("status.activity.title"),
+						description, desc,
+						response.getBody("status.activity.started", TimestampParser::parse));
+				})
+			),
+			response.getBody("previous_usernames", (List<String> list) ->
+				list.stream().map(s -> new User.OldUsername(s, true)).collect(Collectors.toList())));
+	}
+
 	public static CompletableFuture<Optional<List<String>>> getUploadedImages(String userUuid) {
 		return API.getInstance().get(Request.Route.USER.builder().path(userUuid).path("images").build())
 			.thenApply(r -> {
 				if (!r.isError()) {
-					List<Long> list = (List<Long>) r.getBody();
-					return Optional.of(list.stream().map(Long::toUnsignedString).toList());
+					List<String> list = new ArrayList<>();
+					r.forEachElement("", id -> list.add(Long.toUnsignedString((long) id)));
+					return Optional.of(list);
 				}
 				return Optional.empty();
 			});
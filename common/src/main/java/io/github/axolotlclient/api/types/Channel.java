@@ -28,12 +28,9 @@
 import java.util.Objects;
 
 import io.github.axolotlclient.api.API;
-import lombok.AccessLevel;
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import org.jetbrains.annotations.NotNull;
 
-@AllArgsConstructor(access = AccessLevel.PROTECTED)
 @Getter
 public abstract class Channel implements Comparable<Channel> {
 
@@ -43,6 +40,27 @@ public abstract class Channel implements Comparable<Channel> {
 	private List<User> participants;
 	private User owner;
 	private final List<ChatMessage> messages;
+	/**
+	 * The time of the newest known message, or null if there is none.
+	 * Only updated through {@link ChannelIndex}, which keeps channels ordered by it.
+	 */
+	private volatile Instant lastActivity;
+
+	protected Channel(String id, String name, Persistence persistence, List<User> participants, User owner, List<ChatMessage> messages) {
+		this.id = id;
+		this.name = name;
+		this.persistence = persistence;
+		this.participants = participants;
+		this.owner = owner;
+		this.messages = messages;
+		this.lastActivity = messages.stream().map(ChatMessage::timestamp).max(Instant::compareTo).orElse(null);
+	}
+
+	void updateLastActivity(Instant time) {
+		if (lastActivity == null || time.isAfter(lastActivity)) {
+			lastActivity = time;
+		}
+	}
 
 	public List<User> getAllUsers() {
 		List<User> list = new ArrayList<>(participants);
@@ -103,13 +121,11 @@ public int compareTo(@NotNull Channel o) {
 		if (getId().equals(o.getId())) {
 			return 0;
 		}
-		var o1LatestMessage = messages.stream().map(ChatMessage::timestamp).max(Instant::compareTo);
-		var o2LatestMessage = o.messages.stream().map(ChatMessage::timestamp).max(Instant::compareTo);
-		var o1Present = o1LatestMessage.isPresent();
-		var o2Present = o2LatestMessage.isPresent();
-		if (o1Present && o2Present) {
-			return o1LatestMessage.get().compareTo(o2LatestMessage.get());
+		Instant o1LatestMessage = lastActivity;
+		Instant o2LatestMessage = o.lastActivity;
+		if (o1LatestMessage != null && o2LatestMessage != null) {
+			return o1LatestMessage.compareTo(o2LatestMessage);
 		}
-		return o1Present ? 1 : (o2Present ? -1 : 0);
+		return o1LatestMessage != null ? 1 : (o2LatestMessage != null ? -1 : 0);
 	}
 }
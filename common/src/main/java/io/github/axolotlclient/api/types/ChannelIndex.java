@@ -0,0 +1,140 @@
+/*
+ * Copyright © 2026 moehreag <moehreag@gmail.com> & Contributors
+ *
+ * This file is part of AxolotlClient.
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ *
+ * For more information, see the LICENSE file.
+ */
+
+package io.github.axolotlclient.api.types;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Consumer;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Keeps the known channels ordered by their latest activity, newest first.
+ * A new message only moves its own channel instead of sorting every channel again.
+ * <p>
+ * The listener is told the id of every channel that was added, moved or removed, so lists showing the channels
+ * can do the same with a single entry. It is called from whichever thread changed the index.
+ */
+public class ChannelIndex {
+
+	public static final Consumer<String> NO_LISTENER = channelId -> {
+	};
+	public static final Comparator<Channel> ORDER = Comparator
+		.comparing(Channel::getLastActivity, Comparator.nullsLast(Comparator.<Instant>reverseOrder()))
+		.thenComparing(Channel::getId);
+
+	@Getter
+	private static final ChannelIndex Instance = new ChannelIndex();
+
+	private final Map<String, Channel> byId = new HashMap<>();
+	private final NavigableSet<Channel> ordered = new TreeSet<>(ORDER);
+	@Setter
+	private volatile Consumer<String> listener = NO_LISTENER;
+
+	/**
+	 * Adds a channel, replacing a previously loaded instance of the same channel.
+	 */
+	public void put(Channel channel) {
+		synchronized (this) {
+			Channel previous = byId.put(channel.getId(), channel);
+			if (previous != null) {
+				ordered.remove(previous);
+				if (previous.getLastActivity() != null) {
+					channel.updateLastActivity(previous.getLastActivity());
+				}
+			}
+			ordered.add(channel);
+		}
+		listener.accept(channel.getId());
+	}
+
+	public void remove(String channelId) {
+		synchronized (this) {
+			Channel channel = byId.remove(channelId);
+			if (channel == null) {
+				return;
+			}
+			ordered.remove(channel);
+		}
+		listener.accept(channelId);
+	}
+
+	/**
+	 * Removes every channel that is not among the given ones, for example after leaving them elsewhere.
+	 */
+	public void retain(Collection<String> channelIds) {
+		List<String> removed;
+		synchronized (this) {
+			removed = byId.keySet().stream().filter(id -> !channelIds.contains(id)).toList();
+		}
+		removed.forEach(this::remove);
+	}
+
+	public synchronized Optional<Channel> get(String channelId) {
+		return Optional.ofNullable(byId.get(channelId));
+	}
+
+	public void onMessage(ChatMessage message) {
+		Channel channel;
+		synchronized (this) {
+			channel = byId.get(message.channelId());
+		}
+		if (channel != null) {
+			touch(channel, message.timestamp());
+		}
+	}
+
+	/**
+	 * Records activity in a channel and moves it to its new position.
+	 */
+	public void touch(Channel channel, Instant time) {
+		Channel indexed;
+		synchronized (this) {
+			indexed = byId.get(channel.getId());
+			if (indexed != null) {
+				ordered.remove(indexed);
+				indexed.updateLastActivity(time);
+				ordered.add(indexed);
+			}
+			if (indexed != channel) {
+				channel.updateLastActivity(time);
+			}
+		}
+		if (indexed != null) {
+			listener.accept(indexed.getId());
+		}
+	}
+
+	/**
+	 * @return the channels ordered by their latest activity, newest first
+	 */
+	public synchronized List<Channel> getChannels() {
+		return new ArrayList<>(ordered);
+	}
+
+	public synchronized void clear() {
+		byId.clear();
+		ordered.clear();
+	}
+}
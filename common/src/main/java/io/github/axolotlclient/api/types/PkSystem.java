@@ -26,12 +26,8 @@
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Locale;
-import java.util.Optional;
+import java.util.*;
 import java.util.concurrent.CompletableFuture;
-import java.util.regex.Pattern;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
@@ -41,6 +37,7 @@
 import io.github.axolotlclient.util.GsonHelper;
 import io.github.axolotlclient.util.NetworkUtil;
 import io.github.axolotlclient.util.ThreadExecuter;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -56,6 +53,13 @@ public class PkSystem {
 	private final String tag;
 	private final int latchTimeout;
 	private final String avatarUrl;
+	@Getter(AccessLevel.NONE)
+	private final ProxyTagMatcher proxyTagMatcher;
+	// lookup keys -> position in the member list, the first member wins if several share a key
+	@Getter(AccessLevel.NONE)
+	private final Map<String, Integer> membersByDisplayName = new HashMap<>();
+	@Getter(AccessLevel.NONE)
+	private final Map<String, Integer> membersById = new HashMap<>();
 
 	private Member lastLatchProxy;
 	private long lastLatchProxyTime;
@@ -71,13 +75,19 @@ public PkSystem(String id, String name, List<Member> members, List<Member> front
 		this.tag = tag;
 		this.latchTimeout = latchTimeout;
 		this.avatarUrl = avatarUrl;
+		this.proxyTagMatcher = new ProxyTagMatcher(members);
+		for (int i = 0; i < members.size(); i++) {
+			membersByDisplayName.putIfAbsent(members.get(i).getDisplayName(), i);
+			membersById.putIfAbsent(members.get(i).getId(), i);
+		}
 		updateAutoproxyMember(API.getInstance().getApiOptions().autoproxyMember.get());
 	}
 
 	public void updateAutoproxyMember(String value) {
-		this.autoproxyMember = members.stream().filter(m -> value.toLowerCase(Locale.ROOT).equals(m.getDisplayName()) ||
-															value.toLowerCase(Locale.ROOT).equals(m.getId()))
-			.findFirst().orElse(null);
+		String key = value.toLowerCase(Locale.ROOT);
+		int index = Math.min(membersByDisplayName.getOrDefault(key, Integer.MAX_VALUE),
+			membersById.getOrDefault(key, Integer.MAX_VALUE));
+		this.autoproxyMember = index == Integer.MAX_VALUE ? null : members.get(index);
 	}
 
 	private static CompletableFuture<PkSystem> create(JsonObject system) {
@@ -138,7 +148,7 @@ public static CompletableFuture<PkSystem> fromToken(String token) {
 				if (object.has("id")) {
 					return create(object);
 				}
-				return null;
+				return CompletableFuture.completedFuture(null);
 			});
 	}
 
@@ -151,8 +161,7 @@ private Optional<Member> getProxyMember(String message) {
 		if (!API.getInstance().getApiOptions().autoproxy.get()) {
 			return Optional.empty();
 		}
-		Optional<Member> proxy = members.stream().filter(m -> m.proxyTags.stream()
-			.anyMatch(p -> p.matcher(message).matches())).findFirst();
+		Optional<Member> proxy = Optional.ofNullable(proxyTagMatcher.match(message));
 		switch (API.getInstance().getApiOptions().autoproxyMode.get()) {
 			case PROXY_FRONT:
 				return Optional.ofNullable(proxy.orElse(getFirstFronter()));
@@ -203,7 +212,7 @@ public static class Member {
 		private String id;
 		private String name;
 		private String displayName;
-		private List<Pattern> proxyTags;
+		private List<ProxyTag> proxyTags;
 		private boolean autoProxy;
 		private String avatarUrl;
 		private String webhookAvatarUrl;
@@ -217,13 +226,11 @@ public static Member fromObject(JsonObject object) {
 			String id = getString(object, "id");
 			String name = getString(object, "name");
 			JsonArray tags = object.get("proxy_tags").getAsJsonArray();
-			List<Pattern> proxyTags = new ArrayList<>();
+			List<ProxyTag> proxyTags = new ArrayList<>();
 			tags.forEach(e -> {
 				if (e.isJsonObject()) {
 					JsonObject o = e.getAsJsonObject();
-					String prefix = getString(o, "prefix");
-					String suffix = getString(o, "suffix");
-					proxyTags.add(Pattern.compile(Pattern.quote(prefix) + ".*" + Pattern.quote(suffix)));
+					proxyTags.add(new ProxyTag(getString(o, "prefix"), getString(o, "suffix")));
 				}
 			});
 			boolean autoProxy = object.has("autoproxy_enabled") && object.get("autoproxy_enabled").getAsBoolean();
@@ -232,6 +239,13 @@ public static Member fromObject(JsonObject object) {
 		}
 	}
 
+	/**
+	 * A message matches a tag if it starts with the prefix and ends with the suffix, without the two overlapping.
+	 * Matching is done by {@link ProxyTagMatcher} for all members at once.
+	 */
+	public record ProxyTag(String prefix, String suffix) {
+	}
+
 	public enum ProxyMode {
 		PROXY_OFF,
 		PROXY_FRONT,
@@ -262,7 +276,7 @@ static class PluralKitApi {
 		private PluralKitApi() {
 		}
 
-		private final HttpClient client = NetworkUtil.createHttpClient("PluralKit Integration");
+		private final HttpClient client = NetworkUtil.getHttpClient("PluralKit Integration");
 		private int remaining = 1;
 		private long resetsInMillis = 0;
 		private int limit = 2;
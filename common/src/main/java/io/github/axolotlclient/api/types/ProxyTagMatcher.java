@@ -0,0 +1,132 @@
+/*
+ * Copyright © 2026 moehreag <moehreag@gmail.com> & Contributors
+ *
+ * This file is part of AxolotlClient.
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ *
+ * For more information, see the LICENSE file.
+ */
+
+package io.github.axolotlclient.api.types;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Finds the member whose proxy tags match a message.
+ * <p>
+ * The prefixes of all tags form a trie, and each prefix node holds a trie of the reversed suffixes
+ * of the tags starting with it. Matching walks the prefix trie from the start of the message and,
+ * for each complete prefix on the way, the suffix trie from the end of the message.
+ * Nothing is allocated while matching. If several members match, the one listed first wins,
+ * just like testing every member in order.
+ */
+class ProxyTagMatcher {
+	private static final int NONE = Integer.MAX_VALUE;
+
+	private final List<PkSystem.Member> members;
+	private final Node prefixes = new Node();
+
+	ProxyTagMatcher(List<PkSystem.Member> members) {
+		this.members = members;
+		for (int i = 0; i < members.size(); i++) {
+			for (PkSystem.ProxyTag tag : members.get(i).getProxyTags()) {
+				Node prefix = prefixes;
+				for (int c = 0; c < tag.prefix().length(); c++) {
+					prefix = prefix.getOrCreate(tag.prefix().charAt(c));
+				}
+				if (prefix.suffixes == null) {
+					prefix.suffixes = new Node();
+				}
+				Node suffix = prefix.suffixes;
+				for (int c = tag.suffix().length() - 1; c >= 0; c--) {
+					suffix = suffix.getOrCreate(tag.suffix().charAt(c));
+				}
+				suffix.member = Math.min(suffix.member, i);
+			}
+		}
+	}
+
+	/**
+	 * @return the first member with a tag matching this message, or null if there is none
+	 */
+	PkSystem.Member match(String message) {
+		int length = message.length();
+		int best = NONE;
+		Node prefix = prefixes;
+		for (int start = 0; prefix != null; start++) {
+			if (prefix.suffixes != null) {
+				best = Math.min(best, matchSuffix(prefix.suffixes, message, start, best));
+			}
+			if (start == length) {
+				break;
+			}
+			prefix = prefix.get(message.charAt(start));
+		}
+		return best == NONE ? null : members.get(best);
+	}
+
+	/**
+	 * Walks the suffix trie from the end of the message, without overlapping the prefix that ends at {@code start}.
+	 */
+	private static int matchSuffix(Node suffix, String message, int start, int best) {
+		for (int end = message.length() - 1; ; end--) {
+			best = Math.min(best, suffix.member);
+			if (end < start) {
+				return best;
+			}
+			suffix = suffix.get(message.charAt(end));
+			if (suffix == null) {
+				return best;
+			}
+		}
+	}
+
+	private static class Node {
+		private static final char[] NO_KEYS = new char[0];
+		private static final Node[] NO_CHILDREN = new Node[0];
+
+		private char[] keys = NO_KEYS;
+		private Node[] children = NO_CHILDREN;
+		private int member = NONE;
+		private Node suffixes;
+
+		private Node get(char c) {
+			int index = Arrays.binarySearch(keys, c);
+			return index < 0 ? null : children[index];
+		}
+
+		private Node getOrCreate(char c) {
+			int index = Arrays.binarySearch(keys, c);
+			if (index >= 0) {
+				return children[index];
+			}
+			index = -index - 1;
+			Node node = new Node();
+			char[] newKeys = new char[keys.length + 1];
+			Node[] newChildren = new Node[children.length + 1];
+			System.arraycopy(keys, 0, newKeys, 0, index);
+			System.arraycopy(children, 0, newChildren, 0, index);
+			newKeys[index] = c;
+			newChildren[index] = node;
+			System.arraycopy(keys, index, newKeys, index + 1, keys.length - index);
+			System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+			keys = newKeys;
+			children = newChildren;
+			return node;
+		}
+	}
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright © 2026 moehreag <moehreag@gmail.com> & Contributors
+ *
+ * This file is part of AxolotlClient.
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ *
+ * For more information, see the LICENSE file.
+ */
+
+package io.github.axolotlclient.api.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with jitter, so clients that lost their connection at the same time do not all retry at once.
+ * Every delay is picked randomly between half and all of the current ceiling, which doubles with every attempt.
+ */
+public class Backoff {
+	private final long baseMillis;
+	private final long maxMillis;
+	private int attempts;
+
+	public Backoff(long baseMillis, long maxMillis) {
+		this.baseMillis = baseMillis;
+		this.maxMillis = maxMillis;
+	}
+
+	public synchronized long next() {
+		long ceiling = Math.min(maxMillis, baseMillis << Math.min(attempts, 30));
+		attempts++;
+		long half = ceiling / 2;
+		return half + ThreadLocalRandom.current().nextLong(ceiling - half + 1);
+	}
+
+	public synchronized void reset() {
+		attempts = 0;
+	}
+
+	public synchronized int getAttempts() {
+		return attempts;
+	}
+}
@@ -22,12 +22,21 @@
 
 package io.github.axolotlclient.api.util;
 
+import java.util.Set;
+
 import io.github.axolotlclient.api.API;
 import io.github.axolotlclient.api.Response;
 
 public interface SocketMessageHandler {
 
-	boolean isApplicable(String target);
+	/**
+	 * @return the message targets this handler is routed for
+	 */
+	Set<String> getTargets();
+
+	default boolean isApplicable(String target) {
+		return getTargets().contains(target);
+	}
 
 	default void handle(Response response) {
 
@@ -22,76 +22,199 @@
 
 package io.github.axolotlclient.api.util;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
-import java.util.Optional;
-import java.util.UUID;
-import java.util.WeakHashMap;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 import io.github.axolotlclient.api.API;
 import io.github.axolotlclient.util.GsonHelper;
 import io.github.axolotlclient.util.NetworkUtil;
+import io.github.axolotlclient.util.ThreadExecuter;
+import net.fabricmc.loader.api.FabricLoader;
 
+/**
+ * Converts between player uuids and usernames using the Mojang API.
+ * <p>
+ * Lookups don't block. Concurrent lookups for the same key share one request, and results are
+ * kept in a bounded cache that is saved across restarts. Names that don't exist are remembered
+ * for a shorter time, so typos aren't looked up over and over. After a failed lookup the same key
+ * isn't requested again for a short while, as callers on the render thread ask every frame.
+ */
 public class UUIDHelper {
 
-	private static final WeakHashMap<String, String> nameCache = new WeakHashMap<>();
-	private static final WeakHashMap<String, String> uuidCache = new WeakHashMap<>();
-	private static final HttpClient client = NetworkUtil.createHttpClient("UUIDHelper");
+	private static final int MAX_ENTRIES = 2000;
+	private static final long TTL = TimeUnit.HOURS.toMillis(24);
+	private static final long NEGATIVE_TTL = TimeUnit.MINUTES.toMillis(10);
+	private static final long FAILURE_BACKOFF = TimeUnit.SECONDS.toMillis(30);
+	private static final int BULK_LOOKUP_LIMIT = 10;
+	private static final long SAVE_DELAY_SECONDS = 30;
+
+	private static final HttpClient client = NetworkUtil.getHttpClient("UUIDHelper");
+	// undashed lowercase uuid -> username
+	private static final ProfileCache names = new ProfileCache();
+	// lowercase username -> undashed uuid
+	private static final ProfileCache uuids = new ProfileCache();
+	private static final Map<String, CompletableFuture<Optional<String>>> nameLookups = new ConcurrentHashMap<>();
+	private static final Map<String, CompletableFuture<Optional<String>>> uuidLookups = new ConcurrentHashMap<>();
+	// key -> time until which the key isn't looked up again
+	private static final Map<String, Long> nameFailures = new ConcurrentHashMap<>();
+	private static final Map<String, Long> uuidFailures = new ConcurrentHashMap<>();
+	private static final Path cacheFile = FabricLoader.getInstance().getConfigDir()
+		.resolve("AxolotlClient").resolve("profile_cache.json");
+	private static boolean saveScheduled;
 
-	public static String getUsername(String uuid) {
-		return getUsername0(uuid).orElse(uuid);
+	static {
+		ThreadExecuter.scheduleTask(UUIDHelper::load);
+		Runtime.getRuntime().addShutdownHook(new Thread(UUIDHelper::save));
 	}
 
-	private static Optional<String> getUsername0(String uuid) {
-		return Optional.ofNullable(nameCache.computeIfAbsent(uuid, s ->
-			client.sendAsync(HttpRequest.newBuilder(URI.create("https://sessionserver.mojang.com/session/minecraft/profile/" + uuid)).GET().build(), HttpResponse.BodyHandlers.ofString())
-				.thenApply(HttpResponse::body)
-				.thenApply(GsonHelper::fromJson)
-				.thenApply(o -> {
-					if (o.has("name")) {
-						return o.get("name").getAsString();
-					}
-					if (API.getInstance().getApiOptions().detailedLogging.get()) {
-						API.getInstance().getLogger().warn("Conversion uuid -> username failed: {}", o);
-					}
-					return "";
-				}).join())).map(s -> s.isEmpty() ? null : s);
+	/**
+	 * Returns immediately, for callers on the render thread. If the username isn't cached yet
+	 * a lookup is started and the uuid is returned until it completes.
+	 */
+	public static String getCachedUsername(String uuid) {
+		ProfileCache.Entry cached = names.get(uuidKey(uuid));
+		if (cached == null) {
+			resolveUsername(uuid);
+			return uuid;
+		}
+		return cached.value() == null ? uuid : cached.value();
 	}
 
-	public static String getUuid(String username) {
-		return getUuid0(username).orElse(username);
+	public static CompletableFuture<Optional<String>> resolveUsername(String uuid) {
+		String key = uuidKey(uuid);
+		ProfileCache.Entry cached = names.get(key);
+		if (cached != null) {
+			return CompletableFuture.completedFuture(Optional.ofNullable(cached.value()));
+		}
+		if (isBackingOff(nameFailures, key)) {
+			return CompletableFuture.completedFuture(Optional.empty());
+		}
+		return lookup(nameLookups, nameFailures, key, () -> requestProfile(URI.create("https://sessionserver.mojang.com/session/minecraft/profile/" + key))
+			.thenApply(profile -> {
+				if (profile.isEmpty()) {
+					names.put(key, null);
+					return Optional.<String>empty();
+				}
+				cacheProfile(profile.get());
+				return Optional.of(profile.get().getAsJsonPrimitive("name").getAsString());
+			}), "uuid -> username");
 	}
 
-	private static Optional<String> getUuid0(String username) {
-		return Optional.of(uuidCache.computeIfAbsent(username, s ->
-			client.sendAsync(HttpRequest.newBuilder(URI.create("https://api.mojang.com/users/profiles/minecraft/" + username)).GET().build(), HttpResponse.BodyHandlers.ofString())
-				.thenApply(HttpResponse::body)
-				.thenApply(GsonHelper::fromJson)
-				.thenApply(o -> {
-					if (o.has("id")) {
-						return o.get("id").getAsString();
-					}
-					if (API.getInstance().getApiOptions().detailedLogging.get()) {
-						API.getInstance().getLogger().warn("Conversion username -> uuid failed: {}", o);
-					}
-					return "";
-				}).join())).map(s -> s.isEmpty() ? null : s);
+	/**
+	 * Resolves the usernames of all given uuids at once.
+	 *
+	 * @return a map from the given uuids to their usernames. Uuids that couldn't be resolved are missing.
+	 */
+	public static CompletableFuture<Map<String, String>> resolveUsernames(Collection<String> uuids) {
+		Map<String, CompletableFuture<Optional<String>>> futures = new LinkedHashMap<>();
+		for (String uuid : uuids) {
+			futures.computeIfAbsent(uuid, UUIDHelper::resolveUsername);
+		}
+		return collect(futures);
 	}
 
-	public static String ensureUuid(String uuidOrUsername) {
-		return ensureUuidOpt(uuidOrUsername).orElse(uuidOrUsername);
+	public static CompletableFuture<Optional<String>> resolveUuid(String username) {
+		String key = usernameKey(username);
+		ProfileCache.Entry cached = uuids.get(key);
+		if (cached != null) {
+			return CompletableFuture.completedFuture(Optional.ofNullable(cached.value()));
+		}
+		if (isBackingOff(uuidFailures, key)) {
+			return CompletableFuture.completedFuture(Optional.empty());
+		}
+		return lookup(uuidLookups, uuidFailures, key, () -> requestProfile(URI.create("https://api.mojang.com/users/profiles/minecraft/" + key))
+			.thenApply(profile -> {
+				if (profile.isEmpty()) {
+					uuids.put(key, null);
+					return Optional.<String>empty();
+				}
+				return Optional.of(cacheProfile(profile.get()));
+			}), "username -> uuid");
 	}
 
-	public static Optional<String> ensureUuidOpt(String uuidOrUsername) {
-		Optional<String> uuid;
+	/**
+	 * Resolves the uuids of all given usernames, using as few requests as possible.
+	 *
+	 * @return a map from the given usernames to their undashed uuids. Names that couldn't be resolved are missing.
+	 */
+	public static CompletableFuture<Map<String, String>> resolveUuids(Collection<String> usernames) {
+		Map<String, CompletableFuture<Optional<String>>> futures = new LinkedHashMap<>();
+		Map<String, CompletableFuture<Optional<String>>> started = new LinkedHashMap<>();
+		for (String username : usernames) {
+			if (futures.containsKey(username)) {
+				continue;
+			}
+			String key = usernameKey(username);
+			ProfileCache.Entry cached = uuids.get(key);
+			if (cached != null) {
+				futures.put(username, CompletableFuture.completedFuture(Optional.ofNullable(cached.value())));
+				continue;
+			}
+			if (isBackingOff(uuidFailures, key)) {
+				futures.put(username, CompletableFuture.completedFuture(Optional.empty()));
+				continue;
+			}
+			CompletableFuture<Optional<String>> future = started.get(key);
+			if (future == null) {
+				future = new CompletableFuture<>();
+				CompletableFuture<Optional<String>> existing = uuidLookups.putIfAbsent(key, future);
+				if (existing != null) {
+					future = existing;
+				} else {
+					started.put(key, future);
+				}
+			}
+			futures.put(username, future.copy());
+		}
+		List<String> keys = new ArrayList<>(started.keySet());
+		for (int i = 0; i < keys.size(); i += BULK_LOOKUP_LIMIT) {
+			List<String> chunk = keys.subList(i, Math.min(keys.size(), i + BULK_LOOKUP_LIMIT));
+			requestBulk(chunk).whenComplete((found, throwable) -> {
+				if (throwable != null) {
+					logFailure("username -> uuid", throwable);
+				}
+				for (String key : chunk) {
+					Optional<String> uuid;
+					if (found == null) {
+						uuidFailures.put(key, System.currentTimeMillis() + FAILURE_BACKOFF);
+						uuid = Optional.empty();
+					} else {
+						uuid = Optional.ofNullable(found.get(key));
+						if (uuid.isEmpty()) {
+							uuids.put(key, null);
+						}
+					}
+					CompletableFuture<Optional<String>> future = started.get(key);
+					uuidLookups.remove(key, future);
+					future.complete(uuid);
+				}
+			});
+		}
+		return collect(futures);
+	}
+
+	public static CompletableFuture<Optional<String>> ensureUuidAsync(String uuidOrUsername) {
 		try {
-			uuid = Optional.of(API.getInstance().sanitizeUUID(fromUndashed(uuidOrUsername).toString()));
+			return CompletableFuture.completedFuture(Optional.of(API.getInstance().sanitizeUUID(fromUndashed(uuidOrUsername).toString())));
 		} catch (IllegalArgumentException e) {
-			uuid = getUuid0(uuidOrUsername.trim());
+			return resolveUuid(uuidOrUsername.trim());
 		}
-		return uuid;
 	}
 
 	public static UUID fromUndashed(String uuid) {
@@ -101,4 +224,228 @@ public static UUID fromUndashed(String uuid) {
 	public static String toUndashed(UUID uuid) {
 		return API.getInstance().sanitizeUUID(uuid.toString());
 	}
+
+	private static String uuidKey(String uuid) {
+		return uuid.trim().replace("-", "").toLowerCase(Locale.ROOT);
+	}
+
+	private static String usernameKey(String username) {
+		return username.trim().toLowerCase(Locale.ROOT);
+	}
+
+	private static boolean isBackingOff(Map<String, Long> failures, String key) {
+		Long until = failures.get(key);
+		if (until == null) {
+			return false;
+		}
+		if (System.currentTimeMillis() < until) {
+			return true;
+		}
+		failures.remove(key, until);
+		return false;
+	}
+
+	private static CompletableFuture<Optional<String>> lookup(Map<String, CompletableFuture<Optional<String>>> inFlight, Map<String, Long> failures,
+															  String key, Supplier<CompletableFuture<Optional<String>>> request, String description) {
+		CompletableFuture<Optional<String>> future = new CompletableFuture<>();
+		CompletableFuture<Optional<String>> existing = inFlight.putIfAbsent(key, future);
+		if (existing != null) {
+			return existing.copy();
+		}
+		CompletableFuture<Optional<String>> call;
+		try {
+			call = request.get();
+		} catch (RuntimeException e) {
+			// for example a key that is not valid in a URI
+			call = CompletableFuture.failedFuture(e);
+		}
+		call.whenComplete((value, throwable) -> {
+			inFlight.remove(key, future);
+			if (throwable != null) {
+				logFailure(description, throwable);
+				failures.put(key, System.currentTimeMillis() + FAILURE_BACKOFF);
+				future.complete(Optional.empty());
+			} else {
+				future.complete(value);
+			}
+		});
+		return future.copy();
+	}
+
+	private static CompletableFuture<Map<String, String>> collect(Map<String, CompletableFuture<Optional<String>>> futures) {
+		return CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new)).thenApply(v -> {
+			Map<String, String> result = new LinkedHashMap<>();
+			futures.forEach((key, future) -> future.join().ifPresent(value -> result.put(key, value)));
+			return result;
+		});
+	}
+
+	/**
+	 * @return the profile, or an empty optional if the player doesn't exist. Fails for any other error, so it isn't cached.
+	 */
+	private static CompletableFuture<Optional<JsonObject>> requestProfile(URI uri) {
+		return client.sendAsync(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.ofString())
+			.thenApply(response -> {
+				if (response.statusCode() == 204 || response.statusCode() == 404) {
+					return Optional.empty();
+				}
+				if (response.statusCode() != 200) {
+					throw new IllegalStateException("Unexpected response (" + response.statusCode() + "): " + response.body());
+				}
+				JsonObject object = GsonHelper.fromJson(response.body());
+				return object.has("id") && object.has("name") ? Optional.of(object) : Optional.empty();
+			});
+	}
+
+	/**
+	 * @return a map from the lowercase usernames to the undashed uuids of all players that were found
+	 */
+	private static CompletableFuture<Map<String, String>> requestBulk(List<String> usernames) {
+		JsonArray body = new JsonArray();
+		usernames.forEach(body::add);
+		HttpRequest request = HttpRequest.newBuilder(URI.create("https://api.minecraftservices.com/minecraft/profile/lookup/bulk/byname"))
+			.header("Content-Type", "application/json")
+			.POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+			.build();
+		return client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).thenApply(response -> {
+			if (response.statusCode() != 200) {
+				throw new IllegalStateException("Unexpected response (" + response.statusCode() + "): " + response.body());
+			}
+			Map<String, String> found = new HashMap<>();
+			for (JsonElement element : GsonHelper.GSON.fromJson(response.body(), JsonArray.class)) {
+				JsonObject profile = element.getAsJsonObject();
+				found.put(usernameKey(profile.get("name").getAsString()), cacheProfile(profile));
+			}
+			return found;
+		});
+	}
+
+	/**
+	 * @return the undashed uuid of the profile
+	 */
+	private static String cacheProfile(JsonObject profile) {
+		String uuid = uuidKey(profile.get("id").getAsString());
+		String name = profile.get("name").getAsString();
+		cacheProfile(uuid, name, System.currentTimeMillis());
+		scheduleSave();
+		return uuid;
+	}
+
+	private static void cacheProfile(String uuid, String name, long time) {
+		names.put(uuid, name, time);
+		uuids.put(usernameKey(name), uuid, time);
+	}
+
+	private static void logFailure(String description, Throwable throwable) {
+		if (API.getInstance().getApiOptions().detailedLogging.get()) {
+			API.getInstance().getLogger().warn("Conversion {} failed: ", description, throwable);
+		}
+	}
+
+	private static void scheduleSave() {
+		synchronized (UUIDHelper.class) {
+			if (saveScheduled) {
+				return;
+			}
+			saveScheduled = true;
+		}
+		ThreadExecuter.scheduler().schedule(() -> ThreadExecuter.scheduleTask(UUIDHelper::save), SAVE_DELAY_SECONDS, TimeUnit.SECONDS);
+	}
+
+	private static void load() {
+		if (!Files.exists(cacheFile)) {
+			return;
+		}
+		try (Reader reader = Files.newBufferedReader(cacheFile)) {
+			JsonObject object = GsonHelper.GSON.fromJson(reader, JsonObject.class);
+			if (object == null || !object.has("profiles")) {
+				return;
+			}
+			for (JsonElement element : object.getAsJsonArray("profiles")) {
+				JsonObject e = element.getAsJsonObject();
+				long time = e.get("time").getAsLong();
+				if (System.currentTimeMillis() - time < TTL) {
+					String uuid = e.get("uuid").getAsString();
+					String name = e.get("name").getAsString();
+					names.putIfAbsent(uuid, name, time);
+					uuids.putIfAbsent(usernameKey(name), uuid, time);
+				}
+			}
+		} catch (Exception e) {
+			API.getInstance().getLogger().warn("Failed to load profile cache!", e);
+		}
+	}
+
+	private static void save() {
+		synchronized (UUIDHelper.class) {
+			saveScheduled = false;
+		}
+		JsonArray array = new JsonArray();
+		names.forEachValid((uuid, entry) -> {
+			if (entry.value() != null) {
+				JsonObject e = new JsonObject();
+				e.addProperty("uuid", uuid);
+				e.addProperty("name", entry.value());
+				e.addProperty("time", entry.time());
+				array.add(e);
+			}
+		});
+		JsonObject object = new JsonObject();
+		object.add("profiles", array);
+		try {
+			Files.createDirectories(cacheFile.getParent());
+			Path temp = cacheFile.resolveSibling(cacheFile.getFileName() + ".tmp");
+			Files.writeString(temp, GsonHelper.GSON.toJson(object));
+			Files.move(temp, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			API.getInstance().getLogger().warn("Failed to save profile cache!", e);
+		}
+	}
+
+	private static class ProfileCache {
+		private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				return size() > MAX_ENTRIES;
+			}
+		};
+
+		/**
+		 * @return the cached entry, or null if there is none. The value of an entry is null if the player doesn't exist.
+		 */
+		private synchronized Entry get(String key) {
+			Entry entry = entries.get(key);
+			if (entry != null && entry.isExpired()) {
+				entries.remove(key);
+				return null;
+			}
+			return entry;
+		}
+
+		private void put(String key, String value) {
+			put(key, value, System.currentTimeMillis());
+		}
+
+		private synchronized void put(String key, String value, long time) {
+			entries.put(key, new Entry(value, time));
+		}
+
+		private synchronized void putIfAbsent(String key, String value, long time) {
+			entries.putIfAbsent(key, new Entry(value, time));
+		}
+
+		private synchronized void forEachValid(BiConsumer<String, Entry> consumer) {
+			entries.forEach((key, entry) -> {
+				if (!entry.isExpired()) {
+					consumer.accept(key, entry);
+				}
+			});
+		}
+
+		private record Entry(String value, long time) {
+			private boolean isExpired() {
+				return System.currentTimeMillis() - time > (value == null ? NEGATIVE_TTL : TTL);
+			}
+		}
+	}
 }
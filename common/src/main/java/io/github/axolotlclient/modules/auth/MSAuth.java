@@ -40,6 +40,7 @@
 import io.github.axolotlclient.util.GsonHelper;
 import io.github.axolotlclient.util.Logger;
 import io.github.axolotlclient.util.NetworkUtil;
+import io.github.axolotlclient.util.ThreadExecuter;
 
 // Partly oriented on In-Game-Account-Switcher by The-Fireplace, VidTu
 public class MSAuth {
@@ -91,7 +92,8 @@ public CompletableFuture<?> startDeviceAuth() {
 				accounts.displayDeviceCode(data);
 				return data;
 			})
-			.thenApply(data -> {
+			// polls until the user has logged in, so keep it off the threads completing the http responses
+			.thenApplyAsync(data -> {
 				logger.debug("waiting for user authorization...");
 				long start = System.currentTimeMillis();
 				while (System.currentTimeMillis() < data.getExpiresIn() * 1000L + start) {
@@ -135,33 +137,34 @@ public CompletableFuture<?> startDeviceAuth() {
 					}
 				}
 				return null;
-			});
+			}, ThreadExecuter.network());
 	}
 
 	private CompletableFuture<Optional<Account>> authenticateFromMSTokens(String accessToken, String refreshToken) {
-		return CompletableFuture.supplyAsync(() -> {
-			logger.debug("getting xbl token... ");
-			XblData xbl = authXbl(accessToken).join();
+		logger.debug("getting xbl token... ");
+		return authXbl(accessToken).thenCompose(xbl -> {
 			logger.debug("getting xsts token...");
-			XblData xsts = authXstsMC(xbl.token()).join();
+			return authXstsMC(xbl.token());
+		}).thenCompose(xsts -> {
 			logger.debug("getting mc auth token...");
-			MCXblData mc = authMC(xsts.displayClaims().uhs(), xsts.token()).join();
-
-			JsonObject profileJson = getMCProfile(mc.accessToken()).join();
+			return authMC(xsts.displayClaims().uhs(), xsts.token());
+		}).thenCompose(mc -> getMCProfile(mc.accessToken()).thenCompose(profileJson -> {
 			if (profileJson.has("error") && "NOT_FOUND".equals(profileJson.get("error").getAsString())) {
 				AxolotlClientCommon.getInstance().getNotificationProvider().addStatus("auth.notif.login.failed", "auth.notif.login.failed.no_profile");
-				return Optional.empty();
+				return CompletableFuture.completedFuture(Optional.<Account>empty());
 			}
 			logger.debug("retrieving entitlements...");
-			if (!checkOwnership(mc.accessToken()).join()) {
-				AxolotlClientCommon.getInstance().getNotificationProvider().addStatus("auth.notif.login.failed", "auth.notif.login.failed.no_entitlement");
-				logger.warn("Failed to check for game ownership!");
-				return Optional.empty();
-			}
-			logger.debug("getting profile...");
-			MCProfile profile = MCProfile.get(profileJson);
-			return Optional.of(new Account(profile.name(), profile.id(), mc.accessToken(), mc.expiration(), refreshToken, accessToken));
-		});
+			return checkOwnership(mc.accessToken()).thenApply(owned -> {
+				if (!owned) {
+					AxolotlClientCommon.getInstance().getNotificationProvider().addStatus("auth.notif.login.failed", "auth.notif.login.failed.no_entitlement");
+					logger.warn("Failed to check for game ownership!");
+					return Optional.<Account>empty();
+				}
+				logger.debug("getting profile...");
+				MCProfile profile = MCProfile.get(profileJson);
+				return Optional.of(new Account(profile.name(), profile.id(), mc.accessToken(), mc.expiration(), refreshToken, accessToken));
+			});
+		}));
 	}
 
 	private record MCProfile(String id, String name, List<Skin> skins, List<Cape> capes) {
@@ -259,23 +262,21 @@ private CompletableFuture<JsonObject> getMCProfile(String accessToken) {
 	}
 
 	private HttpClient getHttpClient() {
-		return NetworkUtil.createHttpClient("Auth");
+		return NetworkUtil.getHttpClient("Auth");
 	}
 
 	public CompletableFuture<Optional<Account>> refreshToken(String token, Account account) {
-		return CompletableFuture.supplyAsync(() -> {
-			logger.debug("refreshing auth code... ");
-			HttpRequest.Builder requestBuilder = HttpRequest
-				.newBuilder(URI.create(MS_TOKEN_LOGIN_URL))
-				.POST(FormBodyPublisher.newBuilder()
-					.query("client_id", CLIENT_ID)
-					.query("refresh_token", token)
-					.query("scope", SCOPES)
-					.query("grant_type", "refresh_token").build())
-				.header("Accept", "application/json");
-
-			JsonObject response = requestJson(requestBuilder.build()).join();
+		logger.debug("refreshing auth code... ");
+		HttpRequest.Builder requestBuilder = HttpRequest
+			.newBuilder(URI.create(MS_TOKEN_LOGIN_URL))
+			.POST(FormBodyPublisher.newBuilder()
+				.query("client_id", CLIENT_ID)
+				.query("refresh_token", token)
+				.query("scope", SCOPES)
+				.query("grant_type", "refresh_token").build())
+			.header("Accept", "application/json");
 
+		return requestJson(requestBuilder.build()).thenCompose(response -> {
 			if (response.has("error_codes")) {
 				int errorCode = response.get("error_codes").getAsJsonArray().get(0).getAsInt();
 				if (errorCode == 70000 || errorCode == 70012) {
@@ -284,12 +285,13 @@ public CompletableFuture<Optional<Account>> refreshToken(String token, Account a
 					logger.warn("Login error, unexpected response: " + response);
 					AxolotlClientCommon.getInstance().getNotificationProvider().addStatus("auth.notif.refresh.error", "auth.notif.refresh.error.unexpected_response");
 				}
-				return Optional.empty();
+				return CompletableFuture.completedFuture(Optional.<Account>empty());
 			}
 
 			logger.debug("authenticating...");
-			Optional<Account> opt = authenticateFromMSTokens(response.get("access_token").getAsString(),
-				response.get("refresh_token").getAsString()).join();
+			return authenticateFromMSTokens(response.get("access_token").getAsString(),
+				response.get("refresh_token").getAsString());
+		}).thenApply(opt -> {
 			opt.ifPresent(refreshed -> {
 				account.setRefreshToken(refreshed.getRefreshToken());
 				account.setAuthToken(refreshed.getAuthToken());
@@ -22,8 +22,37 @@
 
 package io.github.axolotlclient.modules.hypixel;
 
+import java.io.IOException;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
 public record BedwarsData(int finalKills, int finalDeaths, int bedsBroken, int deaths, int kills, int losses, int wins,
 						  int winstreak) {
 	public static BedwarsData EMPTY = new BedwarsData(0, 0, 0, 0, 0, 0, 0, 0);
 
+	public static BedwarsData read(JsonReader reader) throws IOException {
+		int finalKills = 0, finalDeaths = 0, bedsBroken = 0, deaths = 0, kills = 0, losses = 0, wins = 0, winstreak = 0;
+		reader.beginObject();
+		while (reader.hasNext()) {
+			String name = reader.nextName();
+			if (reader.peek() != JsonToken.NUMBER) {
+				reader.skipValue();
+				continue;
+			}
+			switch (name) {
+				case "final_kills_bedwars" -> finalKills = reader.nextInt();
+				case "final_deaths_bedwars" -> finalDeaths = reader.nextInt();
+				case "beds_broken_bedwars" -> bedsBroken = reader.nextInt();
+				case "deaths_bedwars" -> deaths = reader.nextInt();
+				case "kills_bedwars" -> kills = reader.nextInt();
+				case "losses_bedwars" -> losses = reader.nextInt();
+				case "wins_bedwars" -> wins = reader.nextInt();
+				case "winstreak" -> winstreak = reader.nextInt();
+				default -> reader.skipValue();
+			}
+		}
+		reader.endObject();
+		return new BedwarsData(finalKills, finalDeaths, bedsBroken, deaths, kills, losses, wins, winstreak);
+	}
 }
@@ -22,12 +22,13 @@
 
 package io.github.axolotlclient.modules.hypixel;
 
-import java.time.Instant;
-import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Function;
 
+import com.google.gson.stream.JsonToken;
 import io.github.axolotlclient.api.API;
 import io.github.axolotlclient.api.Request;
 import io.github.axolotlclient.api.Response;
@@ -35,23 +36,29 @@
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.experimental.UtilityClass;
+import net.fabricmc.loader.api.FabricLoader;
 
 @UtilityClass
 public class HypixelAbstractionLayer {
 
-	private final Map<String, Map<RequestDataType, Object>> cachedPlayerData = new HashMap<>();
-	private final Map<String, Map<RequestDataType, CompletableFuture<Optional<Object>>>> cachedRequests = new HashMap<>();
-	private final Map<String, Integer> tempValues = new HashMap<>();
-	private Instant ratelimitReset = Instant.now();
+	private final Map<CacheKey, Object> cachedPlayerData = new ConcurrentHashMap<>();
+	private final Map<String, Integer> tempValues = new ConcurrentHashMap<>();
+	private final HypixelRequestScheduler<CacheKey> scheduler = new HypixelRequestScheduler<>();
+	private final HypixelCache persistentCache = new HypixelCache(FabricLoader.getInstance().getConfigDir()
+		.resolve("AxolotlClient").resolve("hypixel_cache.json"));
 
 	public int getPlayerLevel(String uuid, LevelHeadMode mode) {
+		return getPlayerLevel(uuid, mode, RequestPriority.NORMAL);
+	}
+
+	public int getPlayerLevel(String uuid, LevelHeadMode mode, RequestPriority priority) {
 		int value = -1;
 		if (Objects.equals(mode, LevelHeadMode.NETWORK)) {
-			value = getLevel(uuid, RequestDataType.NETWORK_LEVEL);
+			value = getLevel(uuid, RequestDataType.NETWORK_LEVEL, priority);
 		} else if (Objects.equals(mode, LevelHeadMode.BEDWARS)) {
-			value = getLevel(uuid, RequestDataType.BEDWARS_LEVEL);
+			value = getLevel(uuid, RequestDataType.BEDWARS_LEVEL, priority);
 		} else if (Objects.equals(mode, LevelHeadMode.SKYWARS)) {
-			int exp = getLevel(uuid, RequestDataType.SKYWARS_EXPERIENCE);
+			int exp = getLevel(uuid, RequestDataType.SKYWARS_EXPERIENCE, priority);
 			if (exp != -1) {
 				value = Math.round(ExpCalculator.getLevelForExp(exp));
 			}
@@ -60,86 +67,72 @@ public int getPlayerLevel(String uuid, LevelHeadMode mode) {
 			tempValues.remove(uuid);
 			return value;
 		}
-		return tempValues.computeIfAbsent(uuid, s -> (int) (new Random().nextGaussian() * 30 + 150));
+		return tempValues.computeIfAbsent(uuid, s -> (int) (ThreadLocalRandom.current().nextGaussian() * 30 + 150));
 	}
 
-	private int getLevel(String uuid, RequestDataType type) {
-		return cache(uuid, type, res -> {
-			Number lvl = res.getBody(type.getId());
-			return lvl.intValue();
-		}, -1);
+	private int getLevel(String uuid, RequestDataType type, RequestPriority priority) {
+		return cache(uuid, type, priority, res -> res.decode(reader -> {
+			Integer level = null;
+			reader.beginObject();
+			while (reader.hasNext()) {
+				if (reader.nextName().equals(type.getId()) && reader.peek() == JsonToken.NUMBER) {
+					level = (int) reader.nextDouble();
+				} else {
+					reader.skipValue();
+				}
+			}
+			reader.endObject();
+			return level;
+		}), -1);
 	}
 
 	public int getBedwarsLevel(String uuid) {
-		return getLevel(uuid, RequestDataType.BEDWARS_LEVEL);
+		return getBedwarsLevel(uuid, RequestPriority.NORMAL);
+	}
+
+	public int getBedwarsLevel(String uuid, RequestPriority priority) {
+		return getLevel(uuid, RequestDataType.BEDWARS_LEVEL, priority);
 	}
 
 	public BedwarsData getBedwarsData(String playerUuid) {
-		return cache(playerUuid, RequestDataType.BEDWARS_DATA, res -> new BedwarsData(
-			res.getBody("final_kills_bedwars"),
-			res.getBody("final_deaths_bedwars"),
-			res.getBody("beds_broken_bedwars"),
-			res.getBody("deaths_bedwars"),
-			res.getBody("kills_bedwars"),
-			res.getBody("losses_bedwars"),
-			res.getBody("wins_bedwars"),
-			res.getBody("winstreak")
-		), BedwarsData.EMPTY);
+		return getBedwarsData(playerUuid, RequestPriority.NORMAL);
+	}
+
+	public BedwarsData getBedwarsData(String playerUuid, RequestPriority priority) {
+		return cache(playerUuid, RequestDataType.BEDWARS_DATA, priority, res -> res.decode(BedwarsData::read), BedwarsData.EMPTY);
 	}
 
 	@SuppressWarnings("unchecked")
-	private <T> T cache(String uuid, RequestDataType type, Function<Response, T> func, T absent) {
-		uuid = API.getInstance().sanitizeUUID(uuid);
+	private <T> T cache(String uuid, RequestDataType type, RequestPriority priority, Function<Response, T> func, T absent) {
+		CacheKey key = new CacheKey(API.getInstance().sanitizeUUID(uuid), type);
+		Object cached = cachedPlayerData.get(key);
+		if (cached != null) {
+			return (T) cached;
+		}
+		Optional<String> stored = persistentCache.get(key.uuid(), type.getId());
+		if (stored.isPresent()) {
+			T value = func.apply(Response.builder().status(200).body(stored.get()).build());
+			if (value != null) {
+				cachedPlayerData.put(key, value);
+				return value;
+			}
+			// Drop what can't be used, otherwise it would be parsed again every frame until the new response arrives
+			persistentCache.remove(key.uuid(), type.getId());
+		}
 		if (!API.getInstance().isAuthenticated()) {
 			return absent;
 		}
-		Map<RequestDataType, Object> map = cachedPlayerData.computeIfAbsent(uuid, s -> new HashMap<>());
-		Map<RequestDataType, CompletableFuture<Optional<Object>>> requests = cachedRequests.computeIfAbsent(uuid, s -> new HashMap<>());
-		if (map.containsKey(type)) {
-			return (T) map.get(type);
-		} else  {
-			if (requests.containsKey(type)) {
-				var request = requests.get(type);
-				if (request.isDone()) {
-					requests.remove(type);
-					Optional<T> option = (Optional<T>) request.getNow(Optional.empty());
-					if (option.isPresent()) {
-						T value = option.get();
-						map.put(type, value);
-						return value;
-					}
-				}
-			} else {
-				CompletableFuture<Optional<Object>> request;
-				synchronized (tempValues) {
-					if (Instant.now().isBefore(ratelimitReset)) {
-						return absent;
-					}
-
-					request = getHypixelApiData(uuid, type).thenApply(res -> {
-						if (res.getStatus() == 429) {
-							ratelimitReset = Instant.now().plus(res.firstHeader("RateLimit-Reset").map(Long::parseLong).orElse(2L), ChronoUnit.SECONDS);
-						} else {
-							ratelimitReset = Instant.now().plus(100, ChronoUnit.MILLIS);
-						}
-						if (res.isError()) {
-							return Optional.empty();
-						}
-						return Optional.ofNullable(func.apply(res));
-					});
-				}
-				if (request.isDone()) {
-					Optional<T> option = (Optional<T>) request.getNow(Optional.empty());
-					if (option.isPresent()) {
-						T value = option.get();
-						map.put(type, value);
-						return value;
-					}
-				} else {
-					requests.put(type, request);
+
+		scheduler.submit(key, priority, () -> getHypixelApiData(key.uuid(), type).thenApply(res -> {
+			if (!res.isError()) {
+				T value = func.apply(res);
+				if (value != null) {
+					cachedPlayerData.put(key, value);
+					persistentCache.put(key.uuid(), type.getId(), res.getPlainBody());
 				}
 			}
-		}
+			return res;
+		}));
 		return absent;
 	}
 
@@ -149,6 +142,7 @@ private CompletableFuture<Response> getHypixelApiData(String uuid, RequestDataTy
 
 	public void clearPlayerData() {
 		cachedPlayerData.clear();
+		scheduler.clear();
 	}
 
 	public void handleDisconnectEvents(UUID uuid) {
@@ -156,7 +150,12 @@ public void handleDisconnectEvents(UUID uuid) {
 	}
 
 	private void freePlayerData(String uuid) {
-		cachedPlayerData.remove(uuid);
+		String sanitized = API.getInstance().sanitizeUUID(uuid);
+		cachedPlayerData.keySet().removeIf(key -> key.uuid().equals(sanitized));
+		tempValues.remove(uuid);
+	}
+
+	private record CacheKey(String uuid, RequestDataType type) {
 	}
 
 	@AllArgsConstructor
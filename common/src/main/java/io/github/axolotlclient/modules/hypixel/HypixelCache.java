@@ -0,0 +1,165 @@
+/*
+ * Copyright © 2026 moehreag <moehreag@gmail.com> & Contributors
+ *
+ * This file is part of AxolotlClient.
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ *
+ * For more information, see the LICENSE file.
+ */
+
+package io.github.axolotlclient.modules.hypixel;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import io.github.axolotlclient.AxolotlClientCommon;
+import io.github.axolotlclient.util.GsonHelper;
+import io.github.axolotlclient.util.ThreadExecuter;
+
+/**
+ * Keeps the raw responses of Hypixel stat requests on disk, so they survive restarts and lobby changes.
+ * Entries expire after a fixed time and the oldest ones are dropped once the size limit is reached.
+ * Lookups never lock, as they happen on the render thread.
+ */
+class HypixelCache {
+	private static final int MAX_ENTRIES = 4000;
+	private static final Duration TTL = Duration.ofHours(12);
+	private static final long SAVE_DELAY_SECONDS = 30;
+
+	private final Path file;
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+	private final AtomicBoolean saveScheduled = new AtomicBoolean();
+
+	HypixelCache(Path file) {
+		this.file = file;
+		ThreadExecuter.scheduleTask(this::load);
+		Runtime.getRuntime().addShutdownHook(new Thread(this::save));
+	}
+
+	Optional<String> get(String uuid, String type) {
+		String key = key(uuid, type);
+		Entry entry = entries.get(key);
+		if (entry == null) {
+			return Optional.empty();
+		}
+		if (entry.isExpired()) {
+			entries.remove(key, entry);
+			return Optional.empty();
+		}
+		return Optional.of(entry.body());
+	}
+
+	void put(String uuid, String type, String body) {
+		entries.put(key(uuid, type), new Entry(body, System.currentTimeMillis()));
+		if (entries.size() > MAX_ENTRIES) {
+			ThreadExecuter.scheduleTask(this::evict);
+		}
+		scheduleSave();
+	}
+
+	void remove(String uuid, String type) {
+		if (entries.remove(key(uuid, type)) != null) {
+			scheduleSave();
+		}
+	}
+
+	private void scheduleSave() {
+		if (saveScheduled.compareAndSet(false, true)) {
+			CompletableFuture.delayedExecutor(SAVE_DELAY_SECONDS, TimeUnit.SECONDS, ThreadExecuter.service())
+				.execute(this::save);
+		}
+	}
+
+	private void evict() {
+		int excess = entries.size() - MAX_ENTRIES;
+		if (excess > 0) {
+			entries.entrySet().stream()
+				.sorted(Comparator.comparingLong(e -> e.getValue().time()))
+				.limit(excess)
+				.toList()
+				.forEach(e -> entries.remove(e.getKey(), e.getValue()));
+		}
+	}
+
+	private static String key(String uuid, String type) {
+		return uuid + ":" + type;
+	}
+
+	private void load() {
+		if (!Files.exists(file)) {
+			return;
+		}
+		try (Reader reader = Files.newBufferedReader(file)) {
+			JsonObject object = GsonHelper.GSON.fromJson(reader, JsonObject.class);
+			if (object == null || !object.has("entries")) {
+				return;
+			}
+			for (JsonElement element : object.getAsJsonArray("entries")) {
+				JsonObject e = element.getAsJsonObject();
+				Entry entry = new Entry(e.get("body").getAsString(), e.get("time").getAsLong());
+				if (!entry.isExpired()) {
+					entries.putIfAbsent(e.get("key").getAsString(), entry);
+				}
+			}
+		} catch (Exception e) {
+			AxolotlClientCommon.getInstance().getLogger().warn("Failed to load hypixel stats cache!", e);
+		}
+	}
+
+	private void save() {
+		saveScheduled.set(false);
+		JsonArray array = new JsonArray();
+		Map.copyOf(entries).forEach((key, entry) -> {
+			if (!entry.isExpired()) {
+				JsonObject e = new JsonObject();
+				e.addProperty("key", key);
+				e.addProperty("time", entry.time());
+				e.addProperty("body", entry.body());
+				array.add(e);
+			}
+		});
+		JsonObject object = new JsonObject();
+		object.add("entries", array);
+		try {
+			Files.createDirectories(file.getParent());
+			Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+			Files.writeString(temp, GsonHelper.GSON.toJson(object));
+			Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			AxolotlClientCommon.getInstance().getLogger().warn("Failed to save hypixel stats cache!", e);
+		}
+	}
+
+	private record Entry(String body, long time) {
+		private boolean isExpired() {
+			return System.currentTimeMillis() - time > TTL.toMillis();
+		}
+	}
+}
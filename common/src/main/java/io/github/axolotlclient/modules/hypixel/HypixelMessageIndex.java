@@ -0,0 +1,220 @@
+/*
+ * Copyright © 2026 moehreag <moehreag@gmail.com> & Contributors
+ *
+ * This file is part of AxolotlClient.
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ *
+ * For more information, see the LICENSE file.
+ */
+
+package io.github.axolotlclient.modules.hypixel;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A compiled view of the loaded Hypixel message patterns.
+ * <p>
+ * All patterns for one message key (and all patterns of one language) are joined into a single alternation,
+ * so a lookup usually evaluates one regex. Patterns that would change their meaning when joined, because they use
+ * back references, named groups or flags, are matched on their own instead. Before that, every group checks whether
+ * the message contains at least one literal text that one of its patterns requires, which rules out almost all chat
+ * lines without running a regex at all. Matchers are reused, so lookups do not allocate.
+ */
+public class HypixelMessageIndex {
+	public static final HypixelMessageIndex EMPTY = new HypixelMessageIndex(Collections.emptyMap());
+	// joining renumbers groups, and a group name may only be used once per pattern
+	private static final Pattern UNJOINABLE = Pattern.compile("\\\\\\d|\\(\\?<\\p{Alpha}");
+
+	private final Map<String, Group> byKey = new HashMap<>();
+	private final Map<String, Group> byLanguage = new HashMap<>();
+	private final Group all;
+
+	private HypixelMessageIndex(Map<String, Map<String, Pattern>> languageMessageMap) {
+		Map<String, List<Pattern>> keyPatterns = new LinkedHashMap<>();
+		List<Pattern> allPatterns = new ArrayList<>();
+		languageMessageMap.forEach((lang, messages) -> {
+			byLanguage.put(lang, new Group(messages.values()));
+			messages.forEach((key, pattern) -> keyPatterns.computeIfAbsent(key, k -> new ArrayList<>()).add(pattern));
+			allPatterns.addAll(messages.values());
+		});
+		keyPatterns.forEach((key, patterns) -> byKey.put(key, new Group(patterns)));
+		all = new Group(allPatterns);
+	}
+
+	/**
+	 * @param languageMessageMap the patterns of every message key, grouped by language
+	 */
+	public static HypixelMessageIndex of(Map<String, Map<String, Pattern>> languageMessageMap) {
+		return new HypixelMessageIndex(languageMessageMap);
+	}
+
+	public boolean matchesKey(String key, String message) {
+		Group group = byKey.get(key);
+		return group != null && group.matches(message);
+	}
+
+	public boolean matchesLanguage(String lang, String message) {
+		Group group = byLanguage.get(lang);
+		return group != null && group.matches(message);
+	}
+
+	public boolean matchesAny(String message) {
+		return all.matches(message);
+	}
+
+	/**
+	 * Finds the longest text the given regex can only match if the input contains it.
+	 * This is deliberately conservative: anything it does not fully understand yields no literal.
+	 */
+	static String requiredLiteral(String regex) {
+		String longest = "";
+		StringBuilder run = new StringBuilder();
+		int depth = 0;
+		for (int i = 0; i < regex.length(); i++) {
+			char c = regex.charAt(i);
+			char literal = 0;
+			boolean isLiteral = false;
+			if (c == '\\') {
+				if (i + 1 >= regex.length()) {
+					return null;
+				}
+				char next = regex.charAt(++i);
+				if (Character.isLetterOrDigit(next)) {
+					// quoting, code points and back references are not worth understanding here
+					if ("dDsSwWbBAzZGhHvVRX".indexOf(next) < 0) {
+						return null;
+					}
+				} else {
+					isLiteral = depth == 0;
+					literal = next;
+				}
+			} else if (c == '[') {
+				i = skipClass(regex, i);
+				if (i < 0) {
+					return null;
+				}
+			} else if (c == '(') {
+				if (i + 2 < regex.length() && regex.charAt(i + 1) == '?' && Character.isLetter(regex.charAt(i + 2))) {
+					// inline flags may make matching case-insensitive
+					return null;
+				}
+				depth++;
+			} else if (c == ')') {
+				depth--;
+			} else if (c == '|') {
+				if (depth == 0) {
+					return null;
+				}
+			} else if (c == '{') {
+				// the atom before the repetition has already been left out of the run
+				i = regex.indexOf('}', i);
+				if (i < 0) {
+					return null;
+				}
+			} else if (".^$*+?{}".indexOf(c) < 0) {
+				isLiteral = depth == 0;
+				literal = c;
+			}
+
+			char quantifier = i + 1 < regex.length() ? regex.charAt(i + 1) : 0;
+			if (isLiteral && quantifier != '?' && quantifier != '*' && quantifier != '{') {
+				run.append(literal);
+				if (quantifier != '+') {
+					continue;
+				}
+			}
+			if (run.length() > longest.length()) {
+				longest = run.toString();
+			}
+			run.setLength(0);
+		}
+		if (run.length() > longest.length()) {
+			longest = run.toString();
+		}
+		return longest.isEmpty() ? null : longest;
+	}
+
+	private static int skipClass(String regex, int start) {
+		int depth = 0;
+		for (int i = start; i < regex.length(); i++) {
+			char c = regex.charAt(i);
+			if (c == '\\') {
+				i++;
+			} else if (c == '[') {
+				depth++;
+			} else if (c == ']' && i > start + 1 && --depth == 0) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static class Group {
+		private final String[] literals;
+		private final Matcher[] matchers;
+
+		private Group(Collection<Pattern> patterns) {
+			Set<String> literals = new LinkedHashSet<>();
+			StringJoiner alternation = new StringJoiner("|");
+			List<Matcher> matchers = new ArrayList<>();
+			boolean prefilter = !patterns.isEmpty();
+			for (Pattern pattern : patterns) {
+				String literal = requiredLiteral(pattern.pattern());
+				if (literal == null || pattern.flags() != 0) {
+					prefilter = false;
+				} else {
+					literals.add(literal);
+				}
+				if (pattern.flags() != 0 || UNJOINABLE.matcher(pattern.pattern()).find()) {
+					matchers.add(pattern.matcher(""));
+				} else {
+					alternation.add("(?:" + pattern.pattern() + ")");
+				}
+			}
+			if (alternation.length() > 0) {
+				matchers.add(0, Pattern.compile(alternation.toString()).matcher(""));
+			}
+			this.literals = prefilter ? literals.toArray(String[]::new) : null;
+			this.matchers = matchers.toArray(Matcher[]::new);
+		}
+
+		private synchronized boolean matches(String message) {
+			if (matchers.length == 0) {
+				return false;
+			}
+			if (literals != null && !containsAny(message)) {
+				return false;
+			}
+			for (Matcher matcher : matchers) {
+				if (matcher.reset(message).matches()) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private boolean containsAny(String message) {
+			for (String literal : literals) {
+				if (message.contains(literal)) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+}
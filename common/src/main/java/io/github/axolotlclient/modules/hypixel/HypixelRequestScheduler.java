@@ -0,0 +1,172 @@
+/*
+ * Copyright © 2026 moehreag <moehreag@gmail.com> & Contributors
+ *
+ * This file is part of AxolotlClient.
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ *
+ * For more information, see the LICENSE file.
+ */
+
+package io.github.axolotlclient.modules.hypixel;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import io.github.axolotlclient.api.Response;
+import io.github.axolotlclient.util.ThreadExecuter;
+
+/**
+ * Queues stat requests by priority and sends them as fast as the backend's rate limit allows.
+ * The allowed rate is a token bucket that is adjusted from the {@code RateLimit-Remaining} and
+ * {@code RateLimit-Reset} headers of every response.
+ */
+class HypixelRequestScheduler<K> {
+	private static final int CAPACITY = 5;
+	private static final double DEFAULT_RATE = 10;
+	private static final double MIN_RATE = 0.2;
+	private static final double MAX_RATE = 20;
+	private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+	private final PriorityQueue<Pending<K>> queue = new PriorityQueue<>(Comparator
+		.<Pending<K>, RequestPriority>comparing(Pending::priority, Comparator.reverseOrder())
+		.thenComparingLong(Pending::sequence));
+	private final Map<K, Pending<K>> pending = new HashMap<>();
+	private final Set<K> running = new HashSet<>();
+	private double tokens = CAPACITY;
+	private double rate = DEFAULT_RATE;
+	private long lastRefill = System.nanoTime();
+	private long pausedUntil = lastRefill;
+	private long sequence;
+	private boolean drainScheduled;
+
+	/**
+	 * Queues a request unless one for the same key is already queued or running.
+	 * Queuing an already queued key again with a higher priority moves it up.
+	 */
+	synchronized void submit(K key, RequestPriority priority, Supplier<CompletableFuture<Response>> request) {
+		if (running.contains(key)) {
+			return;
+		}
+		Pending<K> existing = pending.get(key);
+		if (existing != null) {
+			if (existing.priority().compareTo(priority) >= 0) {
+				return;
+			}
+			// the old entry stays in the queue and is skipped once polled
+			Pending<K> bumped = new Pending<>(key, priority, existing.sequence(), existing.request());
+			pending.put(key, bumped);
+			queue.add(bumped);
+		} else {
+			Pending<K> entry = new Pending<>(key, priority, sequence++, request);
+			pending.put(key, entry);
+			queue.add(entry);
+		}
+		if (!drainScheduled) {
+			drainScheduled = true;
+			ThreadExecuter.scheduler().execute(this::drain);
+		}
+	}
+
+	synchronized void clear() {
+		pending.clear();
+		queue.clear();
+	}
+
+	private void drain() {
+		List<Pending<K>> started = new ArrayList<>();
+		synchronized (this) {
+			drainScheduled = false;
+			long now = System.nanoTime();
+			refill(now);
+			long delay;
+			if (now < pausedUntil) {
+				delay = pausedUntil - now;
+			} else {
+				Pending<K> next;
+				while (tokens >= 1 && (next = poll()) != null) {
+					tokens--;
+					running.add(next.key());
+					started.add(next);
+				}
+				delay = (long) ((1 - tokens) / rate * NANOS_PER_SECOND);
+			}
+			if (!pending.isEmpty()) {
+				drainScheduled = true;
+				ThreadExecuter.scheduler().schedule(this::drain, Math.max(delay, 1), TimeUnit.NANOSECONDS);
+			}
+		}
+		for (Pending<K> entry : started) {
+			CompletableFuture<Response> future;
+			try {
+				future = entry.request().get();
+			} catch (RuntimeException e) {
+				future = CompletableFuture.failedFuture(e);
+			}
+			future.whenComplete((response, throwable) -> {
+				synchronized (this) {
+					running.remove(entry.key());
+				}
+				if (response != null) {
+					onResponse(response);
+				}
+			});
+		}
+	}
+
+	private Pending<K> poll() {
+		Pending<K> next;
+		while ((next = queue.poll()) != null) {
+			if (pending.get(next.key()) == next) {
+				pending.remove(next.key());
+				return next;
+			}
+		}
+		return null;
+	}
+
+	private void refill(long now) {
+		tokens = Math.min(CAPACITY, tokens + (now - lastRefill) * rate / NANOS_PER_SECOND);
+		lastRefill = now;
+	}
+
+	private synchronized void onResponse(Response response) {
+		long now = System.nanoTime();
+		refill(now);
+		Optional<Long> reset = response.firstHeader("RateLimit-Reset").map(Long::parseLong);
+		if (response.getStatus() == 429) {
+			pausedUntil = now + TimeUnit.SECONDS.toNanos(reset.orElse(2L));
+			tokens = 0;
+			return;
+		}
+		Optional<Long> remaining = response.firstHeader("RateLimit-Remaining").map(Long::parseLong);
+		if (remaining.isPresent() && reset.isPresent()) {
+			long seconds = Math.max(reset.get(), 1);
+			if (remaining.get() <= 0) {
+				pausedUntil = now + TimeUnit.SECONDS.toNanos(seconds);
+				tokens = 0;
+			} else {
+				rate = Math.max(MIN_RATE, Math.min(MAX_RATE, (double) remaining.get() / seconds));
+				tokens = Math.min(tokens, remaining.get());
+			}
+		}
+	}
+
+	private record Pending<K>(K key, RequestPriority priority, long sequence,
+							  Supplier<CompletableFuture<Response>> request) {
+	}
+}
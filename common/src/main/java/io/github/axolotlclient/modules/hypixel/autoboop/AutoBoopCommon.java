@@ -26,6 +26,7 @@
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.function.Function;
@@ -47,19 +48,28 @@ public abstract class AutoBoopCommon implements AbstractHypixelMod {
 	private static final Pattern FRIEND_JOINED = Pattern.compile("^Friend > (\\b[A-Za-z0-9_§]{3,16}\\b) joined\\.$");
 
 	public void handleMessage(String message) {
-		ThreadExecuter.scheduleTask(() -> { // execute off-thread since the string manipulation for the filter list could potentially take a bit
-			Matcher matcher;
-			if (enabled.get() && (matcher = FRIEND_JOINED.matcher(message)).matches()) {
-				String player = matcher.group(1);
-				if (FilterListMode.fromId(filterListMode.get())
-					.getFunc().apply(player, Arrays.stream(filterList.get().split(",")).map(String::trim).toList())) {
-					CompletableFuture.runAsync(() -> {
-						sendChatMessage("/boop " + player);
-						AxolotlClientCommon.getInstance().getLogger().info("Booped " + player);
-					}, CompletableFuture.delayedExecutor(1, TimeUnit.SECONDS, ThreadExecuter.service()));
-				}
+		if (!enabled.get()) {
+			return;
+		}
+		try {
+			ThreadExecuter.compute().execute(() -> handle(message)); // execute off-thread since the string manipulation for the filter list could potentially take a bit
+		} catch (RejectedExecutionException e) {
+			AxolotlClientCommon.getInstance().getLogger().debug("Skipped auto boop check, the executor is saturated");
+		}
+	}
+
+	private void handle(String message) {
+		Matcher matcher = FRIEND_JOINED.matcher(message);
+		if (matcher.matches()) {
+			String player = matcher.group(1);
+			if (FilterListMode.fromId(filterListMode.get())
+				.getFunc().apply(player, Arrays.stream(filterList.get().split(",")).map(String::trim).toList())) {
+				CompletableFuture.runAsync(() -> {
+					sendChatMessage("/boop " + player);
+					AxolotlClientCommon.getInstance().getLogger().info("Booped " + player);
+				}, CompletableFuture.delayedExecutor(1, TimeUnit.SECONDS, ThreadExecuter.service()));
 			}
-		});
+		}
 	}
 
 	protected final OptionCategory cat = OptionCategory.create("autoboop");
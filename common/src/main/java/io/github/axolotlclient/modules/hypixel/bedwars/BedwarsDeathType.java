@@ -28,22 +28,20 @@
 
 import io.github.axolotlclient.AxolotlClientConfig.api.options.OptionCategory;
 import io.github.axolotlclient.AxolotlClientConfig.impl.options.StringOption;
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 
 /**
  * @author DarkKronicle
  */
 
-@AllArgsConstructor
 public enum BedwarsDeathType {
 	COMBAT(createOption("combat", "rekt"), BedwarsMessages.COMBAT_KILL),
 	VOID(createOption("void", "yeeted into void"), BedwarsMessages.VOID_KILL),
 	PROJECTILE(createOption("projectile", "shot"), BedwarsMessages.PROJECTILE_KILL),
 	FALL(createOption("fall", "fall"), BedwarsMessages.FALL_KILL),
 	GOLEM(createOption("golem", "golem moment"), BedwarsMessages.GOLEM_KILL),
-	SELF_VOID(createOption("self_void", "voided"), new Pattern[]{BedwarsMessages.SELF_VOID}),
-	SELF_UNKNOWN(createOption("self_unknown", "died"), new Pattern[]{BedwarsMessages.SELF_UNKNOWN});
+	SELF_VOID(createOption("self_void", "voided"), BedwarsMessages.SELF_VOID),
+	SELF_UNKNOWN(createOption("self_unknown", "died"), BedwarsMessages.SELF_UNKNOWN);
 
 	@Getter
 	private static final OptionCategory options = OptionCategory.create("bedwars.deathType");
@@ -52,18 +50,23 @@ public enum BedwarsDeathType {
 		Arrays.stream(values()).map(BedwarsDeathType::getInner).forEach(options::add);
 	}
 
+	private static final DeathMessageMatcher matcher = new DeathMessageMatcher(values());
+
 	@Getter
 	private final StringOption inner;
 	@Getter
+	private final String[] messages;
+	@Getter
 	private final Pattern[] patterns;
 
+	BedwarsDeathType(StringOption inner, String... messages) {
+		this.inner = inner;
+		this.messages = messages;
+		this.patterns = BedwarsMessages.convert(messages);
+	}
+
 	public static boolean getDeath(String rawMessage, BedwarsDeathMatch ifPresent) {
-		for (BedwarsDeathType type : values()) {
-			if (BedwarsMessages.matched(type.getPatterns(), rawMessage, m -> ifPresent.onMatch(type, m))) {
-				return true;
-			}
-		}
-		return false;
+		return matcher.match(rawMessage, ifPresent);
 	}
 
 	private static StringOption createOption(String type, String def) {
@@ -72,6 +75,9 @@ private static StringOption createOption(String type, String def) {
 
 	public interface BedwarsDeathMatch {
 
+		/**
+		 * @param matcher the matcher of the death message, which is reused and only valid during this call
+		 */
 		void onMatch(BedwarsDeathType type, Matcher matcher);
 
 	}
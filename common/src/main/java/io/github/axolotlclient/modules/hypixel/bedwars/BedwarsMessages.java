@@ -34,7 +34,7 @@
 
 public class BedwarsMessages {
 
-	public final static Pattern[] COMBAT_KILL = convert(
+	public final static String[] COMBAT_KILL = {
 		"{killed} was struck down by {player}.",
 		"{killed} was filled full of lead by {player}.",
 		"{killed} died in close combat to {player}.",
@@ -70,9 +70,9 @@ public class BedwarsMessages {
 		"{killed} was killed by {player}.",
 		"{killed} was distorted by {player}.",
 		"{killed} was sent to limbo by {player}."
-	);
+	};
 
-	public final static Pattern[] VOID_KILL = convert(
+	public final static String[] VOID_KILL = {
 		"{killed} was turned to dust by {player}.",
 		"{killed} met their end by {player}.",
 		"{killed} fought to the edge with {player}.",
@@ -105,9 +105,9 @@ public class BedwarsMessages {
 		"{killed} was turned to dust by {player}.",
 		"{killed} was thrown into the singularity by {player}.",
 		"{killed} was pushed into limbo by {player}."
-	);
+	};
 
-	public final static Pattern[] PROJECTILE_KILL = convert(
+	public final static String[] PROJECTILE_KILL = {
 		"{killed} was melted by {player}.",
 		"{killed} was killed with dynamite by {player}.",
 		"{killed} fell to the great marksmanship of {player}.",
@@ -139,9 +139,9 @@ public class BedwarsMessages {
 		"{killed} was accidentally spit on by {player}.",
 		"{killed} was shot into another dimension by {player}.",
 		"{killed} was shot into limbo by {player}"
-	);
+	};
 
-	public final static Pattern[] FALL_KILL = convert(
+	public final static String[] FALL_KILL = {
 		"{killed} was turned to ash by {player}.",
 		"{killed} lost a drinking contest with {player}.",
 		"{killed} stumbled off a ledge with help by {player}.",
@@ -174,9 +174,9 @@ public class BedwarsMessages {
 		"{killed} slipped on the fake teeth of {player}.",
 		"{killed} was thrown into a black hole by {player}.",
 		"{killed} was pushed into limbo by {killed}."
-	);
+	};
 
-	public final static Pattern[] GOLEM_KILL = convert(
+	public final static String[] GOLEM_KILL = {
 		"{killed} was fried by {player}'s Golem.",
 		"{killed} lost the draw to {player}'s Golem.",
 		"{killed} tangoed with {player}'s Golem.",
@@ -208,7 +208,7 @@ public class BedwarsMessages {
 		"{killed} was chased away by {player}'s Golem.",
 		"{killed} was launched into a wormhole by {player}'s Golem.",
 		"{killed} was launched into limbo by {player}'s Golem."
-	);
+	};
 
 	public final static Pattern[] BED_BREAK = Arrays.stream(new String[]{
 		"Bed was broken by {player}",
@@ -256,8 +256,8 @@ public class BedwarsMessages {
 
 	public final static Pattern GAME_END = Pattern.compile("^ +1st Killer - ?\\[?\\w*\\+*]? \\w+ - \\d+(?: Kills?)?$");
 
-	public final static Pattern SELF_VOID = Pattern.compile(formatPlaceholder("^{killed} fell into the void\\.(?: FINAL KILL!)?\\s*?"));
-	public final static Pattern SELF_UNKNOWN = Pattern.compile(formatPlaceholder("^{killed} died\\.(?: FINAL KILL!)?\\s*?"));
+	public final static String SELF_VOID = "{killed} fell into the void.";
+	public final static String SELF_UNKNOWN = "{killed} died.";
 
 	public final static Pattern[] ANNOYING_MESSAGES = Arrays.stream(new String[]{
 		"^You will respawn in \\d* seconds!$",
@@ -273,7 +273,7 @@ public class BedwarsMessages {
 		"^\nYOU GOT LUCKY!\nYou will receive DOUBLE EXP this game!\n$"
 	}).map(Pattern::compile).toArray(Pattern[]::new);
 
-	private static Pattern[] convert(String... input) {
+	static Pattern[] convert(String... input) {
 		return Arrays.stream(input)
 			.map(str -> str.replace(".", "\\."))
 			.map(str -> Pattern.compile("^" + formatPlaceholder(str) + "(?: FINAL KILL!)?\\s*?")).toArray(Pattern[]::new);
@@ -0,0 +1,149 @@
+/*
+ * Copyright © 2026 moehreag <moehreag@gmail.com> & Contributors
+ *
+ * This file is part of AxolotlClient.
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ *
+ * For more information, see the LICENSE file.
+ */
+
+package io.github.axolotlclient.modules.hypixel.bedwars;
+
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Finds the death message a chat line belongs to without trying every pattern in turn.
+ * <p>
+ * Every death message starts with the name of the killed player, followed by a literal text up to the next
+ * placeholder. These texts are stored in a trie, so a single walk over the line after the leading name yields
+ * the few messages that can still match. Only those are then checked against their pattern, which also
+ * captures the player names. Lines that are not death messages usually leave the trie after a few characters
+ * and never touch a regex. Children are kept in sorted arrays and every pattern keeps a single matcher, so a lookup
+ * does not allocate.
+ */
+class DeathMessageMatcher {
+	private static final String KILLED = "{killed}";
+
+	private final Node root = new Node();
+
+	DeathMessageMatcher(BedwarsDeathType[] types) {
+		int index = 0;
+		for (BedwarsDeathType type : types) {
+			String[] messages = type.getMessages();
+			Pattern[] patterns = type.getPatterns();
+			for (int i = 0; i < messages.length; i++) {
+				insert(messages[i], new Candidate(index++, type, patterns[i].matcher("")));
+			}
+		}
+	}
+
+	private void insert(String message, Candidate candidate) {
+		if (!message.startsWith(KILLED)) {
+			throw new IllegalArgumentException("Death message does not start with the killed player: " + message);
+		}
+		int end = message.indexOf('{', KILLED.length());
+		String literal = message.substring(KILLED.length(), end < 0 ? message.length() : end);
+		Node node = root;
+		for (int i = 0; i < literal.length(); i++) {
+			node = node.getOrAddChild(literal.charAt(i));
+		}
+		node.addCandidate(candidate);
+	}
+
+	/**
+	 * Matches the given line, preferring death types and messages in declaration order
+	 * just like checking every pattern one after another would.
+	 */
+	synchronized boolean match(String input, BedwarsDeathType.BedwarsDeathMatch consumer) {
+		int nameEnd = 0;
+		while (nameEnd < input.length() && isNameChar(input.charAt(nameEnd))) {
+			nameEnd++;
+		}
+		if (nameEnd < 3) {
+			return false;
+		}
+
+		Candidate best = null;
+		Node node = root;
+		int i = nameEnd;
+		while (node != null) {
+			for (Candidate candidate : node.candidates) {
+				if (best != null && candidate.index() > best.index()) {
+					break;
+				}
+				if (candidate.matcher().reset(input).find()) {
+					best = candidate;
+					break;
+				}
+			}
+			if (i >= input.length()) {
+				break;
+			}
+			node = node.getChild(input.charAt(i++));
+		}
+
+		if (best == null) {
+			return false;
+		}
+		consumer.onMatch(best.type(), best.matcher());
+		return true;
+	}
+
+	private static boolean isNameChar(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == '§';
+	}
+
+	private record Candidate(int index, BedwarsDeathType type, Matcher matcher) {
+	}
+
+	private static class Node {
+		private char[] keys = new char[0];
+		private Node[] children = new Node[0];
+		private Candidate[] candidates = new Candidate[0];
+
+		private Node getChild(char c) {
+			int i = Arrays.binarySearch(keys, c);
+			return i < 0 ? null : children[i];
+		}
+
+		private Node getOrAddChild(char c) {
+			int i = Arrays.binarySearch(keys, c);
+			if (i >= 0) {
+				return children[i];
+			}
+			i = -i - 1;
+			Node node = new Node();
+			char[] newKeys = new char[keys.length + 1];
+			Node[] newChildren = new Node[children.length + 1];
+			System.arraycopy(keys, 0, newKeys, 0, i);
+			System.arraycopy(children, 0, newChildren, 0, i);
+			newKeys[i] = c;
+			newChildren[i] = node;
+			System.arraycopy(keys, i, newKeys, i + 1, keys.length - i);
+			System.arraycopy(children, i, newChildren, i + 1, children.length - i);
+			keys = newKeys;
+			children = newChildren;
+			return node;
+		}
+
+		private void addCandidate(Candidate candidate) {
+			candidates = Arrays.copyOf(candidates, candidates.length + 1);
+			candidates[candidates.length - 1] = candidate;
+		}
+	}
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright © 2026 moehreag <moehreag@gmail.com> & Contributors
+ *
+ * This file is part of AxolotlClient.
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ *
+ * For more information, see the LICENSE file.
+ */
+
+package io.github.axolotlclient.modules.screenshotUtils;
+
+import java.io.*;
+import java.util.Base64;
+
+/**
+ * Passes a JSON document through unchanged, except for the string value of one top level field. That value is
+ * base64 decoded into an output stream while it is being read and shows up as an empty string to whoever parses
+ * the document, so a large payload never has to be held in memory as a whole.
+ */
+class Base64FieldReader extends Reader {
+	private final Reader in;
+	private final String field;
+	private final OutputStream target;
+	private final StringBuilder key = new StringBuilder();
+	private int depth;
+	private boolean inString, escaped, readingKey, expectingKey, valueNext, closeValue;
+
+	Base64FieldReader(Reader in, String field, OutputStream target) {
+		this.in = new BufferedReader(in);
+		this.field = field;
+		this.target = target;
+	}
+
+	@Override
+	public int read(char[] buf, int off, int len) throws IOException {
+		int n = 0;
+		while (n < len) {
+			if (closeValue) {
+				closeValue = false;
+				buf[off + n++] = '"';
+				continue;
+			}
+			int c = in.read();
+			if (c == -1) {
+				break;
+			}
+			if (valueNext && c != ':' && !Character.isWhitespace(c)) {
+				valueNext = false;
+				if (c == '"') {
+					buf[off + n++] = '"';
+					decodeValue();
+					closeValue = true;
+					continue;
+				}
+			}
+			track((char) c);
+			buf[off + n++] = (char) c;
+		}
+		return n == 0 && len > 0 ? -1 : n;
+	}
+
+	private void track(char c) {
+		if (inString) {
+			if (escaped) {
+				escaped = false;
+			} else if (c == '\\') {
+				escaped = true;
+				return;
+			} else if (c == '"') {
+				inString = false;
+				if (readingKey) {
+					readingKey = false;
+					expectingKey = false;
+					valueNext = field.contentEquals(key);
+					key.setLength(0);
+				}
+				return;
+			}
+			if (readingKey) {
+				key.append(c);
+			}
+			return;
+		}
+		switch (c) {
+			case '"' -> {
+				inString = true;
+				readingKey = depth == 1 && expectingKey;
+			}
+			case '{', '[' -> {
+				depth++;
+				expectingKey = depth == 1;
+			}
+			case '}', ']' -> depth--;
+			case ',' -> expectingKey = depth == 1;
+		}
+	}
+
+	private void decodeValue() throws IOException {
+		InputStream value = new InputStream() {
+			private boolean end;
+
+			@Override
+			public int read() throws IOException {
+				while (!end) {
+					int c = in.read();
+					if (c == -1) {
+						throw new EOFException("Unterminated string in JSON document");
+					}
+					if (c == '"') {
+						end = true;
+					} else if (c == '\\') {
+						int escape = in.read();
+						if (escape == '/') {
+							return escape;
+						}
+						if (escape == 'u') {
+							for (int i = 0; i < 4; i++) {
+								in.read();
+							}
+						}
+						// Anything else that may be escaped is a line break or not part of the base64 alphabet
+					} else {
+						return c;
+					}
+				}
+				return -1;
+			}
+		};
+		try (InputStream decoder = Base64.getMimeDecoder().wrap(value)) {
+			decoder.transferTo(target);
+		}
+		// The decoder stops at the padding, skip to the end of the string
+		while (value.read() != -1) {
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+}
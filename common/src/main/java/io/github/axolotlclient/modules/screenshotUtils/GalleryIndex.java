@@ -0,0 +1,309 @@
+/*
+ * Copyright © 2026 moehreag <moehreag@gmail.com> & Contributors
+ *
+ * This file is part of AxolotlClient.
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ *
+ * For more information, see the LICENSE file.
+ */
+
+package io.github.axolotlclient.modules.screenshotUtils;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import io.github.axolotlclient.AxolotlClientCommon;
+import io.github.axolotlclient.util.GsonHelper;
+import io.github.axolotlclient.util.Watcher;
+
+/**
+ * Remembers the screenshots of a directory between sessions, so the gallery does not have to read every file again
+ * when it is opened. The directory is compared against the stored index on the first use, afterwards only the files
+ * reported by a {@link Watcher} are looked at again.
+ * Files are only hashed and probed for their dimensions if their size or modification time changed.
+ * Thumbnails of screenshots that were removed are deleted along with their entries.
+ */
+public class GalleryIndex {
+
+	private final Path dir;
+	private final Path file;
+	private final ThumbnailCache thumbnails;
+	private final Map<String, Entry> entries = new HashMap<>();
+	private boolean loaded, upToDate;
+	private int generation;
+
+	/**
+	 * @param thumbnails the cache whose thumbnails of removed screenshots are deleted
+	 */
+	public GalleryIndex(Path dir, Path file, ThumbnailCache thumbnails) {
+		this.dir = dir;
+		this.file = file;
+		this.thumbnails = thumbnails;
+	}
+
+	/**
+	 * @return all indexed images, newest first
+	 */
+	public List<Entry> entries() throws IOException {
+		int generation;
+		synchronized (this) {
+			if (upToDate) {
+				return sorted();
+			}
+			generation = this.generation;
+		}
+		scan();
+		synchronized (this) {
+			// unless the index was invalidated while the directory was being compared
+			if (this.generation == generation) {
+				upToDate = true;
+			}
+			return sorted();
+		}
+	}
+
+	private List<Entry> sorted() {
+		List<Entry> list = new ArrayList<>(entries.values());
+		list.sort(Comparator.comparingLong(Entry::modified).reversed());
+		return list;
+	}
+
+	/**
+	 * Makes the next call to {@link #entries()} compare the whole directory again,
+	 * for example because changes are no longer being watched.
+	 */
+	public synchronized void invalidate() {
+		upToDate = false;
+		generation++;
+	}
+
+	/**
+	 * Updates the index for the changes reported by a {@link Watcher}. Paths outside of the indexed directory are ignored,
+	 * if events were lost the directory is compared again completely.
+	 *
+	 * @return the entries that were added and removed, an entry of a modified file is contained in both
+	 */
+	public Changes update(Watcher.ChangeSet changeSet) {
+		try {
+			if (changeSet.overflow()) {
+				return scan();
+			}
+			List<Candidate> present = new ArrayList<>();
+			Set<String> deleted = new HashSet<>();
+			for (Map.Entry<Path, Watcher.Change> change : changeSet.changes().entrySet()) {
+				Path path = change.getKey();
+				if (!dir.equals(path.getParent())) {
+					continue;
+				}
+				BasicFileAttributes attributes = change.getValue() == Watcher.Change.DELETED ? null : readAttributes(path);
+				if (attributes == null || !attributes.isRegularFile()) {
+					deleted.add(path.getFileName().toString());
+				} else {
+					present.add(Candidate.of(path, attributes));
+				}
+			}
+			return index(present, deleted::contains);
+		} catch (IOException e) {
+			AxolotlClientCommon.getInstance().getLogger().warn("Failed to update the screenshot index!", e);
+			invalidate();
+			return new Changes(List.of(), List.of());
+		}
+	}
+
+	private Changes scan() throws IOException {
+		List<Candidate> present = new ArrayList<>();
+		try (Stream<Path> files = Files.list(dir)) {
+			for (Path path : (Iterable<Path>) files::iterator) {
+				BasicFileAttributes attributes = readAttributes(path);
+				if (attributes != null && attributes.isRegularFile()) {
+					present.add(Candidate.of(path, attributes));
+				}
+			}
+		}
+		Set<String> names = new HashSet<>();
+		present.forEach(candidate -> names.add(candidate.filename()));
+		return index(present, name -> !names.contains(name));
+	}
+
+	/**
+	 * Indexes the given files if they changed since they were last indexed and drops the entries of removed files.
+	 * Files are hashed without holding the lock, so the gallery can keep reading the index in the meantime.
+	 */
+	private Changes index(List<Candidate> present, Predicate<String> removed) {
+		List<Candidate> changed;
+		synchronized (this) {
+			load();
+			changed = present.stream().filter(candidate -> {
+				Entry old = entries.get(candidate.filename());
+				return old == null || old.size() != candidate.size() || old.modified() != candidate.modified();
+			}).toList();
+		}
+		List<Entry> read = new ArrayList<>(changed.size());
+		for (Candidate candidate : changed) {
+			try {
+				int[] dimensions = readDimensions(candidate.path());
+				read.add(new Entry(candidate.filename(), candidate.size(), candidate.modified(),
+					dimensions[0], dimensions[1], ThumbnailCache.hash(candidate.path())));
+			} catch (IOException e) {
+				// the file may have been deleted again already or is not readable, it will be indexed once the next change to it is reported
+			}
+		}
+		Changes changes = new Changes(new ArrayList<>(), new ArrayList<>());
+		Set<String> orphaned = new HashSet<>();
+		synchronized (this) {
+			for (Entry entry : read) {
+				Entry old = entries.get(entry.filename());
+				// another update may have indexed the same or a newer version of the file in the meantime
+				if (old != null && (old.equals(entry) || old.modified() > entry.modified())) {
+					continue;
+				}
+				entries.put(entry.filename(), entry);
+				if (old != null) {
+					changes.removed().add(old);
+				}
+				changes.added().add(entry);
+			}
+			entries.values().removeIf(entry -> {
+				if (!removed.test(entry.filename())) {
+					return false;
+				}
+				changes.removed().add(entry);
+				return true;
+			});
+			if (!changes.isEmpty()) {
+				changes.removed().forEach(entry -> orphaned.add(entry.hash()));
+				// a renamed screenshot keeps its thumbnail
+				entries.values().forEach(entry -> orphaned.remove(entry.hash()));
+				save();
+			}
+		}
+		orphaned.forEach(thumbnails::remove);
+		return changes;
+	}
+
+	private static BasicFileAttributes readAttributes(Path path) throws IOException {
+		try {
+			return Files.readAttributes(path, BasicFileAttributes.class);
+		} catch (NoSuchFileException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Reads the size of an image from its header, without decoding any pixels.
+	 * Files that are not images are indexed with a size of 0x0.
+	 */
+	private static int[] readDimensions(Path path) throws IOException {
+		try (ImageInputStream in = ImageIO.createImageInputStream(path.toFile())) {
+			Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+			if (readers == null || !readers.hasNext()) {
+				return new int[]{0, 0};
+			}
+			ImageReader reader = readers.next();
+			try {
+				reader.setInput(in, true, true);
+				return new int[]{reader.getWidth(0), reader.getHeight(0)};
+			} finally {
+				reader.dispose();
+			}
+		}
+	}
+
+	private void load() {
+		if (loaded) {
+			return;
+		}
+		loaded = true;
+		if (!Files.exists(file)) {
+			return;
+		}
+		try (Reader reader = Files.newBufferedReader(file)) {
+			JsonObject object = GsonHelper.GSON.fromJson(reader, JsonObject.class);
+			if (object == null || !object.has("entries")) {
+				return;
+			}
+			for (JsonElement element : object.getAsJsonArray("entries")) {
+				JsonObject e = element.getAsJsonObject();
+				Entry entry = new Entry(e.get("filename").getAsString(), e.get("size").getAsLong(), e.get("modified").getAsLong(),
+					e.get("width").getAsInt(), e.get("height").getAsInt(), e.get("hash").getAsString());
+				entries.put(entry.filename(), entry);
+			}
+		} catch (Exception e) {
+			AxolotlClientCommon.getInstance().getLogger().warn("Failed to load the screenshot index!", e);
+		}
+	}
+
+	private void save() {
+		JsonArray array = new JsonArray();
+		entries.values().forEach(entry -> {
+			JsonObject e = new JsonObject();
+			e.addProperty("filename", entry.filename());
+			e.addProperty("size", entry.size());
+			e.addProperty("modified", entry.modified());
+			e.addProperty("width", entry.width());
+			e.addProperty("height", entry.height());
+			e.addProperty("hash", entry.hash());
+			array.add(e);
+		});
+		JsonObject object = new JsonObject();
+		object.add("entries", array);
+		try {
+			Files.createDirectories(file.getParent());
+			Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+			Files.writeString(temp, GsonHelper.GSON.toJson(object));
+			Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			AxolotlClientCommon.getInstance().getLogger().warn("Failed to save the screenshot index!", e);
+		}
+	}
+
+	/**
+	 * @param modified the last modification time in milliseconds
+	 * @param hash     the SHA-256 hash of the file's contents, as used by the {@link ThumbnailCache}
+	 */
+	public record Entry(String filename, long size, long modified, int width, int height, String hash) {
+	}
+
+	private record Candidate(Path path, long size, long modified) {
+		private static Candidate of(Path path, BasicFileAttributes attributes) {
+			return new Candidate(path, attributes.size(), attributes.lastModifiedTime().toMillis());
+		}
+
+		private String filename() {
+			return path.getFileName().toString();
+		}
+	}
+
+	public record Changes(List<Entry> added, List<Entry> removed) {
+		public boolean isEmpty() {
+			return added.isEmpty() && removed.isEmpty();
+		}
+	}
+}
@@ -22,16 +22,19 @@
 
 package io.github.axolotlclient.modules.screenshotUtils;
 
-import java.io.IOException;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
-import java.util.Base64;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import io.github.axolotlclient.AxolotlClientCommon;
 import io.github.axolotlclient.api.API;
 import io.github.axolotlclient.api.Constants;
@@ -45,7 +48,7 @@ public abstract class ImageNetworking {
 
 	protected CompletableFuture<String> upload(Path file) {
 		try {
-			return upload(file.getFileName().toString(), Files.readAllBytes(file));
+			return upload(Request.Route.IMAGE.builder().path(file.getFileName().toString()).rawBody(file).build());
 		} catch (IOException e) {
 			AxolotlClientCommon.getInstance().getLogger().error("Failed to upload image", e);
 			return CompletableFuture.completedFuture("");
@@ -53,7 +56,11 @@ protected CompletableFuture<String> upload(Path file) {
 	}
 
 	protected CompletableFuture<String> upload(String name, byte[] data) {
-		return API.getInstance().post(Request.Route.IMAGE.builder().path(name).rawBody(data).build())
+		return upload(Request.Route.IMAGE.builder().path(name).rawBody(data).build());
+	}
+
+	private CompletableFuture<String> upload(Request request) {
+		return API.getInstance().post(request)
 			.thenApply(response -> {
 				if (response.isError()) {
 					AxolotlClientCommon.getInstance().getLogger().error("Failed to upload image, server responded with "+response);
@@ -83,21 +90,164 @@ protected static Optional<String> ensureUrl(String urlOrId) {
 	}
 
 	protected CompletableFuture<ImageData> download(String url) {
+		return download(url, (read, total) -> {
+		});
+	}
+
+	/**
+	 * Downloads a shared image into a temporary file. The image is decoded while the response is being received,
+	 * so it is never held in memory as a whole. Whoever receives the {@link ImageData} is responsible for deleting its file.
+	 * Cancelling the returned future aborts the download and deletes the partially written file.
+	 */
+	protected CompletableFuture<ImageData> download(String url, ProgressListener listener) {
 		Optional<String> id = urlToId(url);
-		return id.map(s -> API.getInstance().get(Request.Route.IMAGE.builder().requiresAuthentication(false).path(s).build())
-			.thenApply(res -> {
-				if (res.isError()) {
-					return ImageData.EMPTY;
+		return id.map(s -> {
+			CompletableFuture<ImageData> streaming = API.getInstance().getStreaming(Request.Route.IMAGE.builder().requiresAuthentication(false).path(s).build(),
+				new API.BodyReader<>() {
+					@Override
+					public ImageData read(InputStream body, long length) throws IOException {
+						return ImageNetworking.read(new ProgressInputStream(body, length, listener));
+					}
+
+					@Override
+					public void discard(ImageData result) {
+						delete(result.file());
+					}
+				});
+			CompletableFuture<ImageData> result = streaming.exceptionally(t -> {
+				AxolotlClientCommon.getInstance().getLogger().warn("Failed to download image " + url, t);
+				return ImageData.EMPTY;
+			});
+			result.whenComplete((data, throwable) -> {
+				if (result.isCancelled()) {
+					streaming.cancel(true);
 				}
-				String name = res.getBody("filename");
-				String base64 = res.getBody("file");
-				String uploader = res.getBody("uploader");
-				Instant sharedAt = res.getBody("shared_at", Instant::parse);
-				return new ImageData(name, Base64.getDecoder().decode(base64), uploader, sharedAt);
-			})).orElseGet(() -> CompletableFuture.completedFuture(ImageData.EMPTY));
+			});
+			return result;
+		}).orElseGet(() -> CompletableFuture.completedFuture(ImageData.EMPTY));
+	}
+
+	/**
+	 * Downloads a shared image and hands it to the decoder, deleting the temporary file afterwards.
+	 * Cancelling the returned future aborts the download, the file is deleted in that case as well.
+	 *
+	 * @return a future completing with the result of the decoder, or {@code null} if the download failed
+	 */
+	protected <T> CompletableFuture<T> download(String url, ProgressListener listener, Function<ImageData, T> decoder) {
+		CompletableFuture<ImageData> download = download(url, listener);
+		CompletableFuture<T> result = download.thenApply(data -> {
+			if (data == ImageData.EMPTY) {
+				return null;
+			}
+			try {
+				return decoder.apply(data);
+			} finally {
+				delete(data.file());
+			}
+		});
+		result.whenComplete((value, throwable) -> {
+			if (result.isCancelled()) {
+				download.cancel(true);
+				// the download may have finished before the decoder got to run
+				download.thenAccept(data -> delete(data.file()));
+			}
+		});
+		return result;
+	}
+
+	static void delete(Path file) {
+		if (file == null) {
+			return;
+		}
+		try {
+			Files.deleteIfExists(file);
+		} catch (IOException e) {
+			AxolotlClientCommon.getInstance().getLogger().warn("Failed to delete temporary image file " + file, e);
+		}
+	}
+
+	private static ImageData read(InputStream body) throws IOException {
+		Path file = Files.createTempFile("axolotlclient_image", null);
+		try {
+			String name = null, uploader = null;
+			Instant sharedAt = null;
+			try (OutputStream out = Files.newOutputStream(file);
+				 JsonReader reader = new JsonReader(new Base64FieldReader(new InputStreamReader(body, StandardCharsets.UTF_8), "file", out))) {
+				reader.beginObject();
+				while (reader.hasNext()) {
+					switch (reader.nextName()) {
+						case "filename" -> name = nextString(reader);
+						case "uploader" -> uploader = nextString(reader);
+						case "shared_at" -> sharedAt = Instant.parse(nextString(reader));
+						default -> reader.skipValue();
+					}
+				}
+				reader.endObject();
+			}
+			if (name == null) {
+				throw new IOException("Response did not contain an image");
+			}
+			return new ImageData(name, file, uploader, sharedAt);
+		} catch (IOException | RuntimeException e) {
+			Files.deleteIfExists(file);
+			throw e;
+		}
+	}
+
+	private static String nextString(JsonReader reader) throws IOException {
+		if (reader.peek() == JsonToken.NULL) {
+			reader.nextNull();
+			return null;
+		}
+		return reader.nextString();
+	}
+
+	public interface ProgressListener {
+		/**
+		 * @param total the size of the response in bytes, or -1 if it is unknown
+		 */
+		void onProgress(long read, long total);
+	}
+
+	private static class ProgressInputStream extends FilterInputStream {
+		private final long total;
+		private final ProgressListener listener;
+		private long read;
+
+		private ProgressInputStream(InputStream in, long total, ProgressListener listener) {
+			super(in);
+			this.total = total;
+			this.listener = listener;
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = super.read();
+			if (b != -1) {
+				count(1);
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int n = super.read(b, off, len);
+			if (n > 0) {
+				count(n);
+			}
+			return n;
+		}
+
+		private void count(int n) {
+			read += n;
+			listener.onProgress(read, total);
+		}
 	}
 
-	public record ImageData(String name, byte[] data, String uploader, Instant sharedAt) {
-		public static final ImageData EMPTY = new ImageData("", new byte[0], null, null);
+	/**
+	 * @param file a temporary file holding the image, {@code null} for {@link #EMPTY}
+	 */
+	public record ImageData(String name, Path file, String uploader, Instant sharedAt) {
+		public static final ImageData EMPTY = new ImageData("", null, null, null);
 	}
 }
@@ -0,0 +1,188 @@
+/*
+ * Copyright © 2026 moehreag <moehreag@gmail.com> & Contributors
+ *
+ * This file is part of AxolotlClient.
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ *
+ * For more information, see the LICENSE file.
+ */
+
+
+package io.github.axolotlclient.modules.screenshotUtils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import io.github.axolotlclient.AxolotlClientCommon;
+import io.github.axolotlclient.util.GsonHelper;
+import io.github.axolotlclient.util.ThreadExecuter;
+
+/**
+ * Keeps the previews of images shared by friends, so an image is only downloaded again once its thumbnail was evicted.
+ * Thumbnails are stored under the id of the shared image together with its filename. Once more than
+ * {@link #MAX_ENTRIES} are stored, the least recently shown ones are deleted.
+ */
+public class SharedThumbnailCache {
+	private static final int MAX_ENTRIES = 256;
+
+	private final Path dir;
+	private final Path file;
+	private final ThumbnailCache thumbnails;
+	// image id -> filename, least recently used first
+	private final Map<String, String> names = new LinkedHashMap<>(16, 0.75f, true);
+	private boolean loaded;
+
+	public SharedThumbnailCache(Path dir) {
+		this.dir = dir;
+		this.file = dir.resolve("index.json");
+		this.thumbnails = new ThumbnailCache(dir);
+	}
+
+	/**
+	 * Looks up the thumbnail of a shared image, downloading the image only if no thumbnail of it is stored.
+	 *
+	 * @param download downloads the full size image. Its file is deleted once the thumbnail was created.
+	 * @return a future completing with the filename of the image and the location of its thumbnail
+	 */
+	public CompletableFuture<Thumbnail> get(String url, Function<String, CompletableFuture<ImageNetworking.ImageData>> download) {
+		Optional<String> id = ImageNetworking.urlToId(url);
+		if (id.isEmpty()) {
+			return CompletableFuture.failedFuture(new IOException("Not a shared image: " + url));
+		}
+		CompletableFuture<String> stored;
+		try {
+			stored = CompletableFuture.supplyAsync(() -> find(id.get()), ThreadExecuter.images());
+		} catch (RejectedExecutionException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+		return stored.thenCompose(name -> {
+			if (name != null) {
+				return CompletableFuture.completedFuture(new Thumbnail(name, thumbnail(id.get())));
+			}
+			return download.apply(url).thenCompose(data -> {
+				if (data == ImageNetworking.ImageData.EMPTY) {
+					return CompletableFuture.failedFuture(new IOException("Failed to download " + url));
+				}
+				return thumbnails.get(data.file(), id.get())
+					.whenComplete((thumbnail, t) -> ImageNetworking.delete(data.file()))
+					.thenApply(thumbnail -> {
+						add(id.get(), data.name());
+						return new Thumbnail(data.name(), thumbnail);
+					});
+			});
+		});
+	}
+
+	private Path thumbnail(String id) {
+		return dir.resolve(id + ".png");
+	}
+
+	/**
+	 * @return the filename of the stored image, or null if there is no thumbnail of it
+	 */
+	private synchronized String find(String id) {
+		load();
+		String name = names.get(id);
+		if (name != null && !Files.isRegularFile(thumbnail(id))) {
+			names.remove(id);
+			return null;
+		}
+		return name;
+	}
+
+	private synchronized void add(String id, String name) {
+		load();
+		names.put(id, name);
+		Iterator<String> eldest = names.keySet().iterator();
+		while (names.size() > MAX_ENTRIES) {
+			thumbnails.remove(eldest.next());
+			eldest.remove();
+		}
+		save();
+	}
+
+	private void load() {
+		if (loaded) {
+			return;
+		}
+		loaded = true;
+		if (Files.exists(file)) {
+			try (Reader reader = Files.newBufferedReader(file)) {
+				JsonObject object = GsonHelper.GSON.fromJson(reader, JsonObject.class);
+				if (object != null && object.has("entries")) {
+					for (JsonElement element : object.getAsJsonArray("entries")) {
+						JsonObject e = element.getAsJsonObject();
+						names.put(e.get("id").getAsString(), e.get("filename").getAsString());
+					}
+				}
+			} catch (Exception e) {
+				AxolotlClientCommon.getInstance().getLogger().warn("Failed to load the shared thumbnail index!", e);
+			}
+		}
+		// thumbnails that were created but never made it into the index
+		if (Files.isDirectory(dir)) {
+			try (Stream<Path> files = Files.list(dir)) {
+				files.map(path -> path.getFileName().toString())
+					.filter(name -> name.endsWith(".png"))
+					.map(name -> name.substring(0, name.length() - ".png".length()))
+					.filter(id -> !names.containsKey(id))
+					.forEach(thumbnails::remove);
+			} catch (IOException e) {
+				AxolotlClientCommon.getInstance().getLogger().warn("Failed to clean up shared thumbnails!", e);
+			}
+		}
+	}
+
+	private void save() {
+		JsonArray array = new JsonArray();
+		names.forEach((id, name) -> {
+			JsonObject e = new JsonObject();
+			e.addProperty("id", id);
+			e.addProperty("filename", name);
+			array.add(e);
+		});
+		JsonObject object = new JsonObject();
+		object.add("entries", array);
+		try {
+			Files.createDirectories(dir);
+			Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+			Files.writeString(temp, GsonHelper.GSON.toJson(object));
+			Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			AxolotlClientCommon.getInstance().getLogger().warn("Failed to save the shared thumbnail index!", e);
+		}
+	}
+
+	/**
+	 * @param name the filename the image was shared with
+	 */
+	public record Thumbnail(String name, Path file) {
+	}
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright © 2026 moehreag <moehreag@gmail.com> & Contributors
+ *
+ * This file is part of AxolotlClient.
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ *
+ * For more information, see the LICENSE file.
+ */
+
+package io.github.axolotlclient.modules.screenshotUtils;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Hands out texture slots to the tiles of the gallery. A slot is a fixed size texture that is reused for
+ * different images, so scrolling through the gallery does not register a new texture for every image.
+ * <p>
+ * Tiles that were used in the current or the previous frame (the rows around the viewport) keep their slot.
+ * New slots are only created while the memory budget allows it, otherwise the least recently used tile
+ * outside of that window gives up its slot. Slots are only freed once the whole gallery is closed.
+ * All methods must be called on the render thread.
+ *
+ * @param <K> the tile
+ * @param <S> the slot implementation
+ */
+public class TextureResidency<K, S> {
+	public static final int WINDOW_ROWS = 2;
+	public static final long SLOT_BYTES = (long) ThumbnailCache.MAX_WIDTH * ThumbnailCache.MAX_HEIGHT * 4;
+
+	private final Map<K, Resident<S>> residents = new LinkedHashMap<>(16, 0.75f, true);
+	private final Deque<S> free = new ArrayDeque<>();
+	private final List<S> slots = new ArrayList<>();
+	private final LongSupplier budget;
+	private final Supplier<S> factory;
+	private final Consumer<S> destructor;
+	private long frame;
+	private boolean closed;
+
+	/**
+	 * @param budget     the amount of memory in bytes the slots may use
+	 * @param factory    creates and registers a new slot
+	 * @param destructor releases a slot's texture
+	 */
+	public TextureResidency(LongSupplier budget, Supplier<S> factory, Consumer<S> destructor) {
+		this.budget = budget;
+		this.factory = factory;
+		this.destructor = destructor;
+	}
+
+	public void nextFrame() {
+		frame++;
+	}
+
+	/**
+	 * Marks a tile as used in this frame.
+	 *
+	 * @return the slot currently holding the tile's image or {@code null} if it has none
+	 */
+	public S get(K key) {
+		Resident<S> resident = residents.get(key);
+		if (resident == null) {
+			return null;
+		}
+		resident.frame = frame;
+		return resident.slot;
+	}
+
+	/**
+	 * Assigns a slot to a tile, reusing a free or evicted one if possible.
+	 *
+	 * @return the slot the tile's image should be uploaded to or {@code null} if the residency was closed already
+	 */
+	public S acquire(K key) {
+		if (closed) {
+			return null;
+		}
+		S slot = get(key);
+		if (slot != null) {
+			return slot;
+		}
+		slot = free.poll();
+		if (slot == null && (slots.size() + 1) * SLOT_BYTES > budget.getAsLong()) {
+			slot = evict();
+		}
+		if (slot == null) {
+			slot = factory.get();
+			slots.add(slot);
+		}
+		residents.put(key, new Resident<>(slot, frame));
+		return slot;
+	}
+
+	public void release(K key) {
+		Resident<S> resident = residents.remove(key);
+		if (resident != null) {
+			free.add(resident.slot);
+		}
+	}
+
+	/**
+	 * Returns the slots of all tiles to the pool, for example because the tiles were recreated.
+	 */
+	public void releaseAll() {
+		residents.values().forEach(resident -> free.add(resident.slot));
+		residents.clear();
+	}
+
+	private S evict() {
+		Iterator<Resident<S>> iterator = residents.values().iterator();
+		if (!iterator.hasNext()) {
+			return null;
+		}
+		Resident<S> eldest = iterator.next();
+		if (eldest.frame >= frame - 1) {
+			// every tile is still in the window, all others were used even more recently
+			return null;
+		}
+		iterator.remove();
+		return eldest.slot;
+	}
+
+	public int getResidentCount() {
+		return residents.size();
+	}
+
+	public long getAllocatedBytes() {
+		return slots.size() * SLOT_BYTES;
+	}
+
+	public void close() {
+		closed = true;
+		residents.clear();
+		free.clear();
+		slots.forEach(destructor);
+		slots.clear();
+	}
+
+	private static class Resident<S> {
+		private final S slot;
+		private long frame;
+
+		private Resident(S slot, long frame) {
+			this.slot = slot;
+			this.frame = frame;
+		}
+	}
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright © 2026 moehreag <moehreag@gmail.com> & Contributors
+ *
+ * This file is part of AxolotlClient.
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ *
+ * For more information, see the LICENSE file.
+ */
+
+package io.github.axolotlclient.modules.screenshotUtils;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+
+import io.github.axolotlclient.AxolotlClientCommon;
+import io.github.axolotlclient.util.ThreadExecuter;
+
+/**
+ * Creates the small previews shown in the screenshot gallery and keeps them on disk.
+ * Thumbnails are named after the hash of the original file's contents, so a renamed screenshot keeps its thumbnail
+ * while an edited one gets a new one. Images are decoded with subsampling, the full resolution pixels are never held in memory.
+ */
+public class ThumbnailCache {
+	public static final int MAX_WIDTH = 320, MAX_HEIGHT = 240;
+
+	private final Path dir;
+	private final Map<String, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+
+	public ThumbnailCache(Path dir) {
+		this.dir = dir;
+	}
+
+	/**
+	 * Looks up the thumbnail of an image, generating it in the background if it does not exist yet.
+	 *
+	 * @param image the full size image
+	 * @param hash  the name of the thumbnail, the hash of the image as known from the {@link GalleryIndex}
+	 *              or the id of a shared image
+	 * @return a future completing with the location of the thumbnail
+	 */
+	public CompletableFuture<Path> get(Path image, String hash) {
+		return submit(hash, () -> getOrCreate(hash, () -> ImageIO.createImageInputStream(image.toFile())));
+	}
+
+	/**
+	 * Deletes the thumbnail of an image that no longer exists.
+	 */
+	public void remove(String hash) {
+		try {
+			Files.deleteIfExists(dir.resolve(hash + ".png"));
+		} catch (IOException e) {
+			AxolotlClientCommon.getInstance().getLogger().warn("Failed to delete thumbnail {}", hash, e);
+		}
+	}
+
+	private CompletableFuture<Path> submit(String key, Task task) {
+		CompletableFuture<Path> existing = inFlight.get(key);
+		if (existing == null) {
+			CompletableFuture<Path> future = new CompletableFuture<>();
+			existing = inFlight.putIfAbsent(key, future);
+			if (existing == null) {
+				try {
+					ThreadExecuter.images().execute(() -> {
+						try {
+							future.complete(task.run());
+						} catch (Throwable t) {
+							future.completeExceptionally(t);
+						} finally {
+							inFlight.remove(key, future);
+						}
+					});
+				} catch (RejectedExecutionException e) {
+					inFlight.remove(key, future);
+					future.completeExceptionally(e);
+				}
+				return future;
+			}
+		}
+		return existing;
+	}
+
+	private Path getOrCreate(String hash, Source source) throws IOException {
+		Path thumbnail = dir.resolve(hash + ".png");
+		if (Files.isRegularFile(thumbnail)) {
+			return thumbnail;
+		}
+		BufferedImage scaled = downscale(source);
+		Files.createDirectories(dir);
+		Path temp = Files.createTempFile(dir, null, ".tmp");
+		try {
+			if (!ImageIO.write(scaled, "png", temp.toFile())) {
+				throw new IOException("No png encoder available");
+			}
+			Files.move(temp, thumbnail, StandardCopyOption.REPLACE_EXISTING);
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+		return thumbnail;
+	}
+
+	static String hash(Path file) throws IOException {
+		return hash(Files.newInputStream(file));
+	}
+
+	private static String hash(InputStream stream) throws IOException {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+		try (InputStream in = new DigestInputStream(stream, digest)) {
+			in.transferTo(OutputStream.nullOutputStream());
+		}
+		return HexFormat.of().formatHex(digest.digest());
+	}
+
+	private static BufferedImage downscale(Source source) throws IOException {
+		try (ImageInputStream in = source.open()) {
+			Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+			if (readers == null || !readers.hasNext()) {
+				throw new IOException("Unsupported image format");
+			}
+			ImageReader reader = readers.next();
+			try {
+				reader.setInput(in, true, true);
+				int width = reader.getWidth(0);
+				int height = reader.getHeight(0);
+				double scale = Math.min(1, Math.min(MAX_WIDTH / (double) width, MAX_HEIGHT / (double) height));
+				// Skip pixels while decoding, but keep twice the target size so the final filtering pass has something to smooth
+				int step = Math.max(1, (int) (0.5 / scale));
+				ImageReadParam param = reader.getDefaultReadParam();
+				param.setSourceSubsampling(step, step, 0, 0);
+				BufferedImage sampled = reader.read(0, param);
+
+				int targetWidth = Math.max(1, (int) Math.round(width * scale));
+				int targetHeight = Math.max(1, (int) Math.round(height * scale));
+				BufferedImage result = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_ARGB);
+				Graphics2D graphics = result.createGraphics();
+				try {
+					graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+					graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+					graphics.drawImage(sampled, 0, 0, targetWidth, targetHeight, null);
+				} finally {
+					graphics.dispose();
+				}
+				return result;
+			} finally {
+				reader.dispose();
+			}
+		}
+	}
+
+	private interface Task {
+		Path run() throws IOException;
+	}
+
+	private interface Source {
+		ImageInputStream open() throws IOException;
+	}
+}
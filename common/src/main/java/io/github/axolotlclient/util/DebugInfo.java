@@ -0,0 +1,62 @@
+/*
+ * Copyright © 2026 moehreag <moehreag@gmail.com> & Contributors
+ *
+ * This file is part of AxolotlClient.
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ *
+ * For more information, see the LICENSE file.
+ */
+
+
+package io.github.axolotlclient.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.github.axolotlclient.api.API;
+import io.github.axolotlclient.api.ClientEndpoint;
+import io.github.axolotlclient.api.RequestDispatcher;
+
+/**
+ * Collects the counters of the client's background work for the debug screen.
+ */
+public class DebugInfo {
+
+	public static List<String> getLines() {
+		List<String> lines = new ArrayList<>();
+		lines.add("");
+		lines.add("[AxolotlClient]");
+		ThreadExecuter.getStats().forEach(stats -> lines.add(stats.toString()));
+		NetworkUtil.getHostStats().forEach((host, stats) ->
+			lines.add(String.format("%s: %d requests, %d failed, %d http/2, %.1f ms avg, %.1f ms max", host, stats.requests(),
+				stats.failures(), stats.http2Responses(), stats.averageLatency() / 1_000_000d, stats.maxLatency() / 1_000_000d)));
+		API api = API.getInstance();
+		if (api != null) {
+			RequestDispatcher dispatcher = api.getDispatcher();
+			lines.add(String.format("Requests: %d running, %d queued, %d coalesced", dispatcher.getInFlight(),
+				dispatcher.getQueueDepth(), dispatcher.getCoalesced().sum()));
+			ClientEndpoint endpoint = api.getEndpoint();
+			if (endpoint != null) {
+				lines.add(String.format("Socket: %d queued, %d coalesced, %d dropped", endpoint.getQueueDepth(),
+					endpoint.getCoalesced(), endpoint.getDropped()));
+			}
+			api.getSocketRouter().getStats().forEach((target, stats) ->
+				lines.add(String.format("%s: %d handled, %.1f ms avg, %.1f ms max", target, stats.handled(),
+					stats.averageLatency() / 1_000_000d, stats.maxLatency() / 1_000_000d)));
+		}
+		return lines;
+	}
+}
@@ -88,13 +88,11 @@ public static Object read(JsonReader reader) throws IOException {
 			case STRING:
 				return reader.nextString();
 			case NUMBER:
-				// Ugh.
 				String num = reader.nextString();
-				try {
+				if (isLong(num)) {
 					return Long.parseLong(num);
-				} catch (NumberFormatException e) {
-					return Double.parseDouble(num);
 				}
+				return Double.parseDouble(num);
 			case BOOLEAN:
 				return reader.nextBoolean();
 			case NULL:
@@ -109,6 +107,43 @@ public static Object read(JsonReader reader) throws IOException {
 		}
 	}
 
+	private static final String LONG_MAX = Long.toString(Long.MAX_VALUE);
+	private static final String LONG_MIN = Long.toString(Long.MIN_VALUE);
+
+	/**
+	 * Checks whether a json number literal can be represented as a {@code long},
+	 * so that parsing it never has to fall back on a {@link NumberFormatException}.
+	 */
+	public static boolean isLong(String num) {
+		int length = num.length();
+		boolean negative = length > 0 && num.charAt(0) == '-';
+		int start = negative ? 1 : 0;
+		if (length == start) {
+			return false;
+		}
+		for (int i = start; i < length; i++) {
+			char c = num.charAt(i);
+			if (c < '0' || c > '9') {
+				return false;
+			}
+		}
+		String limit = negative ? LONG_MIN : LONG_MAX;
+		if (length != limit.length()) {
+			return length < limit.length();
+		}
+		return num.compareTo(limit) <= 0;
+	}
+
+	public static <T> T decode(String json, JsonDecoder<T> decoder) throws IOException {
+		try (JsonReader reader = new JsonReader(new StringReader(json))) {
+			return decoder.read(reader);
+		}
+	}
+
+	public interface JsonDecoder<T> {
+		T read(JsonReader reader) throws IOException;
+	}
+
 	public static Stream<JsonElement> jsonArrayToStream(JsonArray array) {
 		List<JsonElement> elements = new ArrayList<>(array.size());
 		array.forEach(elements::add);
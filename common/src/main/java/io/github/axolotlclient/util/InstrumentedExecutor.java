@@ -0,0 +1,129 @@
+/*
+ * Copyright © 2026 moehreag <moehreag@gmail.com> & Contributors
+ *
+ * This file is part of AxolotlClient.
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ *
+ * For more information, see the LICENSE file.
+ */
+
+package io.github.axolotlclient.util;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.github.axolotlclient.AxolotlClientCommon;
+import lombok.Getter;
+
+/**
+ * A named thread pool with a bounded queue that keeps track of how it is used.
+ * <p>
+ * Once the queue is full, further tasks are rejected with a {@link RejectedExecutionException} and counted.
+ * They are never run on the submitting thread, as that may be the render thread or a selector thread.
+ * Asynchronous stages of a {@link CompletableFuture} fail with the exception instead.
+ */
+public class InstrumentedExecutor extends ThreadPoolExecutor {
+	@Getter
+	private final String name;
+	private final LongAdder rejected = new LongAdder();
+	private final LongAdder latency = new LongAdder();
+	private final AtomicLong maxLatency = new AtomicLong();
+
+	public InstrumentedExecutor(String name, int threads, int queueCapacity, boolean virtualThreads) {
+		super(threads, threads, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(queueCapacity),
+			createThreadFactory(name, virtualThreads));
+		this.name = name;
+		allowCoreThreadTimeOut(true);
+		setRejectedExecutionHandler((task, executor) -> {
+			rejected.increment();
+			throw new RejectedExecutionException("The " + name + " executor is saturated");
+		});
+	}
+
+	@Override
+	public void execute(Runnable command) {
+		super.execute(new Timed(command, System.nanoTime()));
+	}
+
+	@Override
+	protected void afterExecute(Runnable r, Throwable t) {
+		super.afterExecute(r, t);
+		if (r instanceof Timed timed) {
+			long nanos = System.nanoTime() - timed.submitted();
+			latency.add(nanos);
+			maxLatency.accumulateAndGet(nanos, Math::max);
+		}
+		if (t != null) {
+			AxolotlClientCommon.getInstance().getLogger().error("Uncaught exception in {} executor", name, t);
+		}
+	}
+
+	public Stats getStats() {
+		long completed = getCompletedTaskCount();
+		return new Stats(name, getActiveCount(), getQueue().size(), rejected.sum(), completed,
+			completed == 0 ? 0 : latency.sum() / completed, maxLatency.get());
+	}
+
+	/**
+	 * A snapshot of the counters of an executor. Latencies are measured from submission to completion, in nanoseconds.
+	 */
+	public record Stats(String name, int active, int queued, long rejected, long completed, long averageLatency,
+						long maxLatency) {
+		@Override
+		public String toString() {
+			return String.format("%s: %d active, %d queued, %d rejected, %.1f ms avg, %.1f ms max", name, active, queued,
+				rejected, averageLatency / 1_000_000d, maxLatency / 1_000_000d);
+		}
+	}
+
+	static ThreadFactory createThreadFactory(String name, boolean virtualThreads) {
+		if (virtualThreads) {
+			ThreadFactory factory = createVirtualThreadFactory(name);
+			if (factory != null) {
+				return factory;
+			}
+		}
+		AtomicInteger count = new AtomicInteger();
+		return r -> {
+			Thread thread = new Thread(r, "AxolotlClient " + name + " #" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+	/**
+	 * Virtual threads only exist from Java 21 on, while we compile against 17.
+	 */
+	private static ThreadFactory createVirtualThreadFactory(String name) {
+		try {
+			Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, "AxolotlClient " + name + " #", 1L);
+			return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	private record Timed(Runnable task, long submitted) implements Runnable {
+		@Override
+		public void run() {
+			task.run();
+		}
+	}
+}
@@ -22,20 +22,122 @@
 
 package io.github.axolotlclient.util;
 
+import java.io.IOException;
 import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import com.github.mizosoft.methanol.Methanol;
 import io.github.axolotlclient.AxolotlClientCommon;
 import lombok.experimental.UtilityClass;
 
+/**
+ * Hands out the http clients used by the client.
+ * <p>
+ * All clients share a single backend, so connections (and their TLS sessions) to a host are pooled and reused
+ * no matter which feature makes the request. Clients only differ in their user agent and are cached per id,
+ * so restarting the API or switching accounts doesn't throw away warm connections.
+ */
 @UtilityClass
 public class NetworkUtil {
 
-	public HttpClient createHttpClient(String id) {
-		return Methanol.newBuilder().userAgent("AxolotlClient/" + id + " (" + AxolotlClientCommon.getUAVersionString() + ") contact: moehreag<at>gmail.com")
-			.followRedirects(HttpClient.Redirect.NORMAL)
+	private final HttpClient backend = HttpClient.newBuilder()
+		.version(HttpClient.Version.HTTP_2)
+		.followRedirects(HttpClient.Redirect.NORMAL)
+		.connectTimeout(Duration.ofSeconds(15))
+		.executor(ThreadExecuter.network())
+		.build();
+	private final Map<String, HttpClient> clients = new ConcurrentHashMap<>();
+	private final Map<String, HostMetrics> hosts = new ConcurrentHashMap<>();
+
+	public HttpClient getHttpClient(String id) {
+		return clients.computeIfAbsent(id, NetworkUtil::createHttpClient);
+	}
+
+	private HttpClient createHttpClient(String id) {
+		return Methanol.newBuilder(backend)
+			.userAgent("AxolotlClient/" + id + " (" + AxolotlClientCommon.getUAVersionString() + ") contact: moehreag<at>gmail.com")
 			.requestTimeout(Duration.ofMinutes(1))
-			.executor(ThreadExecuter.service()).build();
+			.autoAcceptEncoding(true)
+			.interceptor(new MetricsInterceptor())
+			.build();
+	}
+
+	/**
+	 * @return the request counters of every host contacted so far, sorted by host name
+	 */
+	public Map<String, HostStats> getHostStats() {
+		Map<String, HostStats> stats = new TreeMap<>();
+		hosts.forEach((host, metrics) -> stats.put(host, metrics.stats()));
+		return stats;
+	}
+
+	/**
+	 * A snapshot of the counters of a single host. Latencies are given in nanoseconds.
+	 */
+	public record HostStats(long requests, long failures, long http2Responses, long averageLatency, long maxLatency) {
+	}
+
+	private static class HostMetrics {
+		private final LongAdder requests = new LongAdder();
+		private final LongAdder failures = new LongAdder();
+		private final LongAdder http2Responses = new LongAdder();
+		private final LongAdder latency = new LongAdder();
+		private final AtomicLong maxLatency = new AtomicLong();
+
+		private void record(long start, HttpResponse<?> response, Throwable throwable) {
+			long nanos = System.nanoTime() - start;
+			requests.increment();
+			latency.add(nanos);
+			maxLatency.accumulateAndGet(nanos, Math::max);
+			if (throwable != null || response == null) {
+				failures.increment();
+			} else if (response.version() == HttpClient.Version.HTTP_2) {
+				http2Responses.increment();
+			}
+		}
+
+		private HostStats stats() {
+			long count = requests.sum();
+			return new HostStats(count, failures.sum(), http2Responses.sum(),
+				count == 0 ? 0 : latency.sum() / count, maxLatency.get());
+		}
+	}
+
+	private static class MetricsInterceptor implements Methanol.Interceptor {
+
+		private static HostMetrics metrics(HttpRequest request) {
+			String host = request.uri().getHost();
+			return hosts.computeIfAbsent(host == null ? "" : host, h -> new HostMetrics());
+		}
+
+		@Override
+		public <T> HttpResponse<T> intercept(HttpRequest request, Chain<T> chain) throws IOException, InterruptedException {
+			HostMetrics metrics = metrics(request);
+			long start = System.nanoTime();
+			try {
+				HttpResponse<T> response = chain.forward(request);
+				metrics.record(start, response, null);
+				return response;
+			} catch (IOException | InterruptedException | RuntimeException e) {
+				metrics.record(start, null, e);
+				throw e;
+			}
+		}
+
+		@Override
+		public <T> CompletableFuture<HttpResponse<T>> interceptAsync(HttpRequest request, Chain<T> chain) {
+			HostMetrics metrics = metrics(request);
+			long start = System.nanoTime();
+			return chain.forwardAsync(request)
+				.whenComplete((response, throwable) -> metrics.record(start, response, throwable));
+		}
 	}
 }
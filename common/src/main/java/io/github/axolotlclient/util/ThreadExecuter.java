@@ -22,23 +22,83 @@
 
 package io.github.axolotlclient.util;
 
-import java.util.concurrent.Callable;
-import java.util.concurrent.Executor;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.ForkJoinPool;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import io.github.axolotlclient.AxolotlClientCommon;
+
+/**
+ * Holds the executors used by the client. Each kind of work gets its own pool, so a burst of one
+ * (for example image decoding in the gallery) can't starve the others (like the network callbacks).
+ * <ul>
+ *     <li>{@link #network()}: blocking and asynchronous network I/O, uses virtual threads when available</li>
+ *     <li>{@link #compute()}: handling socket messages, JSON decoding and other short CPU bound work</li>
+ *     <li>{@link #images()}: reading, decoding and downscaling images</li>
+ *     <li>{@link #scheduler()}: delayed and periodic tasks, which should only hand off work to the other pools</li>
+ * </ul>
+ */
 public class ThreadExecuter {
-	private static final ExecutorService POOL = new ForkJoinPool(5, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+	private static final boolean VIRTUAL_THREADS = Runtime.version().feature() >= 21;
+	private static final InstrumentedExecutor NETWORK = new InstrumentedExecutor("Network",
+		VIRTUAL_THREADS ? 64 : 16, 1024, VIRTUAL_THREADS);
+	private static final InstrumentedExecutor COMPUTE = new InstrumentedExecutor("Compute",
+		Math.max(2, Runtime.getRuntime().availableProcessors() / 2), 1024, false);
+	private static final InstrumentedExecutor IMAGES = new InstrumentedExecutor("Images",
+		Math.max(2, Runtime.getRuntime().availableProcessors() / 2), 1024, false);
+	private static final ScheduledExecutorService SCHEDULER = createScheduler();
 
 	public static void scheduleTask(Runnable runnable) {
-		POOL.execute(runnable);
+		try {
+			NETWORK.execute(runnable);
+		} catch (RejectedExecutionException e) {
+			AxolotlClientCommon.getInstance().getLogger().error("Dropped task", e);
+		}
 	}
 
 	public static void scheduleTask(Callable<?> runnable) {
-		POOL.submit(runnable);
+		try {
+			NETWORK.submit(runnable);
+		} catch (RejectedExecutionException e) {
+			AxolotlClientCommon.getInstance().getLogger().error("Dropped task", e);
+		}
 	}
 
+	/**
+	 * @return the general purpose executor, the same as {@link #network()}
+	 */
 	public static Executor service() {
-		return POOL;
+		return NETWORK;
+	}
+
+	public static Executor network() {
+		return NETWORK;
+	}
+
+	public static Executor compute() {
+		return COMPUTE;
+	}
+
+	public static Executor images() {
+		return IMAGES;
+	}
+
+	public static ScheduledExecutorService scheduler() {
+		return SCHEDULER;
+	}
+
+	public static List<InstrumentedExecutor.Stats> getStats() {
+		return List.of(NETWORK.getStats(), COMPUTE.getStats(), IMAGES.getStats());
+	}
+
+	private static ScheduledExecutorService createScheduler() {
+		AtomicInteger count = new AtomicInteger();
+		ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(2, r -> {
+			Thread thread = new Thread(r, "AxolotlClient Scheduler #" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.setRemoveOnCancelPolicy(true);
+		return executor;
 	}
 }
@@ -24,37 +24,46 @@
 
 import java.io.IOException;
 import java.nio.file.*;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import io.github.axolotlclient.AxolotlClientCommon;
 import org.jetbrains.annotations.Nullable;
 
-
+/**
+ * Watches a directory and all of its subdirectories for changes.
+ * <p>
+ * A background thread blocks until the file system reports an event and then keeps collecting events until none
+ * arrived for {@link #DEBOUNCE_MILLIS}. The events are coalesced per path and handed to the subscribers as a single
+ * {@link ChangeSet}, so a file that is written in several steps is only reported once. Nothing wakes up while the
+ * directory doesn't change, and the thread ends once the watcher is closed.
+ */
 public class Watcher implements AutoCloseable {
-	private static final ScheduledExecutorService thread = Executors.newSingleThreadScheduledExecutor();
+	private static final long DEBOUNCE_MILLIS = 200;
+	private static final long MAX_DELAY_MILLIS = 2000;
+
 	private final WatchService watcher;
 	private final Path path;
+	private final Map<WatchKey, Path> directories = new HashMap<>();
+	private final List<Consumer<ChangeSet>> subscribers = new CopyOnWriteArrayList<>();
+	private final Thread thread;
 
 	public Watcher(Path root) throws IOException {
 		this.path = root;
 		this.watcher = path.getFileSystem().newWatchService();
 
 		try {
-			this.watchDir(path);
-			try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(path)) {
-
-				for (Path path : directoryStream) {
-					if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
-						this.watchDir(path);
-					}
-				}
-			}
+			this.watchTree(path, null);
 		} catch (Exception e) {
 			this.watcher.close();
 			throw e;
 		}
+		this.thread = new Thread(this::run, "AxolotlClient Watcher (" + root.getFileName() + ")");
+		this.thread.setDaemon(true);
 	}
 
 	@Nullable
@@ -68,52 +77,138 @@ public static Watcher create(Path path) {
 		}
 	}
 
-	public static Watcher createSelfTicking(Path path, Runnable onUpdate) {
+	/**
+	 * Creates a watcher that hands every change in the given directory tree to the subscriber until it is closed.
+	 */
+	@Nullable
+	public static Watcher watch(Path path, Consumer<ChangeSet> subscriber) {
 		var watcher = create(path);
 		if (watcher != null) {
-			thread.scheduleAtFixedRate(() -> {
+			watcher.subscribe(subscriber);
+		}
+		return watcher;
+	}
+
+	/**
+	 * Adds a subscriber, which will be called on the watcher's thread. Adding the first subscriber starts watching.
+	 */
+	public synchronized void subscribe(Consumer<ChangeSet> subscriber) {
+		subscribers.add(subscriber);
+		if (thread.getState() == Thread.State.NEW) {
+			thread.start();
+		}
+	}
+
+	public void unsubscribe(Consumer<ChangeSet> subscriber) {
+		subscribers.remove(subscriber);
+	}
+
+	private void run() {
+		try {
+			while (true) {
+				Map<Path, Change> changes = new HashMap<>();
+				boolean overflow = collect(watcher.take(), changes);
+				long deadline = System.currentTimeMillis() + MAX_DELAY_MILLIS;
+				WatchKey watchKey;
+				while (System.currentTimeMillis() < deadline
+					&& (watchKey = watcher.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+					overflow |= collect(watchKey, changes);
+				}
+				if (overflow || !changes.isEmpty()) {
+					publish(new ChangeSet(Map.copyOf(changes), overflow));
+				}
+			}
+		} catch (ClosedWatchServiceException | InterruptedException ignored) {
+			// the watcher was closed
+		}
+	}
+
+	private void publish(ChangeSet changes) {
+		for (Consumer<ChangeSet> subscriber : subscribers) {
+			try {
+				subscriber.accept(changes);
+			} catch (Exception e) {
+				AxolotlClientCommon.getInstance().getLogger().warn("Failed to handle changes in {}", path, e);
+			}
+		}
+	}
+
+	/**
+	 * @return whether events were lost
+	 */
+	private boolean collect(WatchKey watchKey, Map<Path, Change> changes) {
+		Path dir = directories.get(watchKey);
+		boolean overflow = dir == null;
+		for (WatchEvent<?> watchEvent : watchKey.pollEvents()) {
+			if (dir == null || watchEvent.kind() == StandardWatchEventKinds.OVERFLOW) {
+				overflow = true;
+				continue;
+			}
+			Path path = dir.resolve((Path) watchEvent.context());
+			Change change = watchEvent.kind() == StandardWatchEventKinds.ENTRY_CREATE ? Change.CREATED :
+				watchEvent.kind() == StandardWatchEventKinds.ENTRY_DELETE ? Change.DELETED : Change.MODIFIED;
+			changes.merge(path, change, Watcher::coalesce);
+			if (change == Change.CREATED && Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
 				try {
-					if (watcher.pollForChanges()) {
-						onUpdate.run();
-					}
+					this.watchTree(path, changes);
 				} catch (IOException e) {
-					try {
-						watcher.close();
-					} catch (IOException ignored) {
-					}
+					overflow = true;
 				}
-			}, 100, 100, TimeUnit.MILLISECONDS);
+			}
 		}
-		return watcher;
+
+		if (!watchKey.reset()) {
+			directories.remove(watchKey);
+		}
+		return overflow;
 	}
 
-	private void watchDir(Path path) throws IOException {
-		path.register(this.watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+	/**
+	 * Combines two changes of the same path, returns {@code null} if they cancel each other out.
+	 */
+	private static Change coalesce(Change previous, Change next) {
+		return switch (previous) {
+			case CREATED -> next == Change.DELETED ? null : Change.CREATED;
+			case MODIFIED, DELETED -> next == Change.DELETED ? Change.DELETED : Change.MODIFIED;
+		};
 	}
 
-	public boolean pollForChanges() throws IOException {
-		boolean bl = false;
-
-		WatchKey watchKey;
-		while ((watchKey = this.watcher.poll()) != null) {
-			for (WatchEvent<?> watchEvent : watchKey.pollEvents()) {
-				bl = true;
-				if (watchKey.watchable() == this.path && watchEvent.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
-					Path path = this.path.resolve((Path) watchEvent.context());
-					if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
-						this.watchDir(path);
-					}
+	/**
+	 * Registers a directory and all of its subdirectories.
+	 *
+	 * @param changes if not {@code null}, everything found below the directory is reported as created there, since it
+	 *                may have been created before the directory was registered
+	 */
+	private void watchTree(Path root, @Nullable Map<Path, Change> changes) throws IOException {
+		Files.walkFileTree(root, new SimpleFileVisitor<>() {
+			@Override
+			public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+				directories.put(dir.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE,
+					StandardWatchEventKinds.ENTRY_MODIFY), dir);
+				if (changes != null && !dir.equals(root)) {
+					changes.merge(dir, Change.CREATED, Watcher::coalesce);
 				}
+				return FileVisitResult.CONTINUE;
 			}
 
-			watchKey.reset();
-		}
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+				if (changes != null) {
+					changes.merge(file, Change.CREATED, Watcher::coalesce);
+				}
+				return FileVisitResult.CONTINUE;
+			}
 
-		return bl;
+			@Override
+			public FileVisitResult visitFileFailed(Path file, IOException exc) {
+				return FileVisitResult.CONTINUE;
+			}
+		});
 	}
 
 	public void close() throws IOException {
 		this.watcher.close();
+		this.thread.interrupt();
 	}
 
 	public void safeClose() {
@@ -128,4 +223,19 @@ public static void close(Watcher watcher) {
 			watcher.safeClose();
 		}
 	}
+
+	public enum Change {
+		CREATED, MODIFIED, DELETED
+	}
+
+	/**
+	 * @param changes  what happened to each path since the last set. A file that was created and deleted again in
+	 *                 between is not contained at all
+	 * @param overflow whether events were lost, in which case anything in the tree may have changed
+	 */
+	public record ChangeSet(Map<Path, Change> changes, boolean overflow) {
+		public Set<Path> paths(Change change) {
+			return changes.entrySet().stream().filter(e -> e.getValue() == change).map(Map.Entry::getKey).collect(Collectors.toSet());
+		}
+	}
 }